@@ -0,0 +1,66 @@
+package tracker.data;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to rebuild the course statistics aggregates after a restore, sequentially compared
+ * with in parallel on 1 to 16 fork-join pool threads, for both storage backends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregateRebuildBenchmark {
+    @Param({"100000", "1000000", "10000000"})
+    public int records;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int parallelism;
+
+    @Param({"HEAP", "MAPPED"})
+    public StudentPointsData.Storage storage;
+
+    private final StudentPointsData studentPointsData = StudentPointsData.getInstance();
+
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        studentPointsData.clear();
+        studentPointsData.setStorage(storage, null);
+        Random random = new Random(records);
+        for (int i = 0; i < records; i++) {
+            // One student for every ten records, with roughly half of the records having
+            // points for each course.
+            studentPointsData.addStudentPoints(new StudentPointsRecord(10000 + random.nextInt(records / 10),
+                    random.nextInt(2) * 10, random.nextInt(2) * 10, random.nextInt(2) * 10, random.nextInt(2) * 10));
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        studentPointsData.clear();
+        studentPointsData.setStorage(StudentPointsData.Storage.HEAP, null);
+    }
+
+    @Benchmark
+    public CourseStatisticsRecord rebuildSequential() {
+        studentPointsData.rebuildAggregates(pool, Integer.MAX_VALUE);
+        return studentPointsData.getCourseStatistics(1);
+    }
+
+    @Benchmark
+    public CourseStatisticsRecord rebuildParallel() {
+        studentPointsData.rebuildAggregates(pool, 0);
+        return studentPointsData.getCourseStatistics(1);
+    }
+}
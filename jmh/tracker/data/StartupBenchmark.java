@@ -0,0 +1,105 @@
+package tracker.data;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time to rebuild the data stores at startup, from a snapshot plus a short journal tail
+ * compared with replaying the whole journal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+    private static final int JOURNAL_TAIL_RECORDS = 10_000;
+
+    @Param({"1000000", "10000000"})
+    public int records;
+
+    private final StudentData studentData = StudentData.getInstance();
+    private final StudentPointsData studentPointsData = StudentPointsData.getInstance();
+
+    private Path snapshotDirectory;
+    private Path journalDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Snapshot of all records but the tail, then the tail in the journal.
+        snapshotDirectory = Files.createTempDirectory("tracker-snapshot");
+        clear();
+        try (Journal journal = Journal.open(snapshotDirectory, studentData, studentPointsData)) {
+            journal.setCheckpointEntries(Long.MAX_VALUE);
+            populate(records - JOURNAL_TAIL_RECORDS, 0);
+            journal.checkpoint();
+            populate(JOURNAL_TAIL_RECORDS, records - JOURNAL_TAIL_RECORDS);
+        }
+
+        // All records in the journal.
+        journalDirectory = Files.createTempDirectory("tracker-journal");
+        clear();
+        try (Journal journal = Journal.open(journalDirectory, studentData, studentPointsData)) {
+            journal.setCheckpointEntries(Long.MAX_VALUE);
+            populate(records, 0);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        clear();
+        delete(snapshotDirectory);
+        delete(journalDirectory);
+    }
+
+    @Benchmark
+    public int restoreSnapshotAndJournalTail() throws IOException {
+        clear();
+        Journal.open(snapshotDirectory, studentData, studentPointsData).close();
+        return studentPointsData.getNumberOfStudentPoints();
+    }
+
+    @Benchmark
+    public int replayWholeJournal() throws IOException {
+        clear();
+        Journal.open(journalDirectory, studentData, studentPointsData).close();
+        return studentPointsData.getNumberOfStudentPoints();
+    }
+
+    /**
+     * Add student points records, with one new student for every ten records.
+     */
+    private void populate(int numberOfRecords, int firstRecord) {
+        Random random = new Random(firstRecord);
+        for (int i = firstRecord; i < firstRecord + numberOfRecords; i++) {
+            if (i % 10 == 0) {
+                studentData.addStudent(new StudentRecord("Student", "Number" + i, "student" + i + "@test.com"));
+            }
+            var studentPointsRecord = new StudentPointsRecord(10000 + random.nextInt(i / 10 + 1),
+                    random.nextInt(10), random.nextInt(10), random.nextInt(10), random.nextInt(10));
+            studentData.updatePoints(studentPointsRecord);
+            studentPointsData.addStudentPoints(studentPointsRecord);
+        }
+    }
+
+    private void clear() {
+        studentData.clear();
+        studentPointsData.clear();
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package tracker.data;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the student data store operations used by the input handlers. Indexed
+ * operations such as getStudentByEmail should keep the same throughput as the number of
+ * students grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentDataBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int students;
+
+    private static final int[] COMPLETION_POINTS = {0, 600, 400, 480, 550};
+
+    private final StudentData studentData = StudentData.getInstance();
+    private final StudentPointsData studentPointsData = StudentPointsData.getInstance();
+
+    private String[] emails;
+    private int[] studentIds;
+    private int nextIndex = 0;
+    private int nextNewStudent = 0;
+    private int firstNewStudentId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        studentData.clear();
+        emails = new String[students];
+        studentIds = new int[students];
+        for (int i = 0; i < students; i++) {
+            emails[i] = "student" + i + "@test.com";
+            studentIds[i] = studentData.addStudent(new StudentRecord("Student", "Number" + i, emails[i]));
+        }
+        firstNewStudentId = studentData.getNextStudentId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeNewStudents() {
+        // Keep the dataset size fixed across iterations.
+        int nextStudentId = studentData.getNextStudentId();
+        for (int studentId = firstNewStudentId; studentId < nextStudentId; studentId++) {
+            studentData.deleteStudent(studentId);
+        }
+        firstNewStudentId = nextStudentId;
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeStudentPoints() {
+        studentPointsData.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        studentData.clear();
+    }
+
+    @Benchmark
+    public int addStudent() {
+        int i = nextNewStudent++;
+        return studentData.addStudent(new StudentRecord("New", "Student", "new" + i + "@test.com"));
+    }
+
+    @Benchmark
+    public Object getStudentByEmail() {
+        return studentData.getStudentByEmail(emails[nextIndex()]);
+    }
+
+    @Benchmark
+    public Object updatePoints() {
+        return studentData.updatePoints(new StudentPointsRecord(studentIds[nextIndex()], 1, 0, 1, 0));
+    }
+
+    @Benchmark
+    public int applyPoints() {
+        return studentData.applyPoints(new StudentPointsRecord(studentIds[nextIndex()], 1, 0, 1, 0),
+                COMPLETION_POINTS, studentPointsData);
+    }
+
+    @Benchmark
+    public void listIdsFromStudentCopies(Blackhole blackhole) {
+        for (StudentRecord studentRecord : studentData.getStudents()) {
+            blackhole.consume(studentRecord.studentId());
+        }
+    }
+
+    @Benchmark
+    public void listIds(Blackhole blackhole) {
+        studentData.forEachId(blackhole::consume);
+    }
+
+    private int nextIndex() {
+        int index = nextIndex;
+        nextIndex = (index + 1 == students) ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,98 @@
+package tracker.data;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the student data store with 1 to 32 threads changing points and reading
+ * students at once. Threads pick students at random, so they mostly work on different
+ * lock stripes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentDataConcurrencyBenchmark {
+    @Param({"100000"})
+    public int students;
+
+    @Param({"MAP", "COLUMNAR"})
+    public StudentData.Storage storage;
+
+    private final StudentData studentData = StudentData.getInstance();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        studentData.clear();
+        studentData.setStorage(storage);
+        for (int i = 0; i < students; i++) {
+            studentData.addStudent(new StudentRecord("Student", "Number" + i, "student" + i + "@test.com"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        studentData.clear();
+        studentData.setStorage(StudentData.Storage.MAP);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object updatePoints1Thread() {
+        return updatePoints();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Object updatePoints2Threads() {
+        return updatePoints();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object updatePoints4Threads() {
+        return updatePoints();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object updatePoints8Threads() {
+        return updatePoints();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object updatePoints16Threads() {
+        return updatePoints();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Object updatePoints32Threads() {
+        return updatePoints();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object getStudent8Threads() {
+        return studentData.getStudent(randomStudentId());
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Object getStudent32Threads() {
+        return studentData.getStudent(randomStudentId());
+    }
+
+    private Object updatePoints() {
+        return studentData.updatePoints(new StudentPointsRecord(randomStudentId(), 1, 0, 1, 0));
+    }
+
+    private int randomStudentId() {
+        return 10000 + ThreadLocalRandom.current().nextInt(students);
+    }
+}
@@ -0,0 +1,62 @@
+package tracker.data;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of reading the student points of a course, as a list and as a scan, with two
+ * student points records per student, for both storage backends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentPointsDataBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int students;
+
+    @Param({"1", "4"})
+    public int courseId;
+
+    @Param({"HEAP", "MAPPED"})
+    public StudentPointsData.Storage storage;
+
+    private final StudentPointsData studentPointsData = StudentPointsData.getInstance();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        studentPointsData.clear();
+        studentPointsData.setStorage(storage, null);
+        Random random = new Random(students);
+        for (int i = 0; i < 2 * students; i++) {
+            // Roughly half of the records have points for each course.
+            studentPointsData.addStudentPoints(new StudentPointsRecord(10000 + i / 2,
+                    random.nextInt(2) * 10, random.nextInt(2) * 10, random.nextInt(2) * 10, random.nextInt(2) * 10));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        studentPointsData.clear();
+        studentPointsData.setStorage(StudentPointsData.Storage.HEAP, null);
+    }
+
+    @Benchmark
+    public List<StudentPointsRecord> getStudentPointsByCourseId() {
+        return studentPointsData.getStudentPointsByCourseId(courseId);
+    }
+
+    @Benchmark
+    public long forEachStudentPointsByCourseId() {
+        long[] points = new long[1];
+        studentPointsData.forEachStudentPointsByCourseId(courseId,
+                studentPointsRecord -> points[0] += studentPointsRecord.coursePoints(courseId));
+        return points[0];
+    }
+}
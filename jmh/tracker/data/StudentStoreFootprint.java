@@ -0,0 +1,47 @@
+package tracker.data;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Heap footprint of the student storage backends. Each backend is filled with the same
+ * students and the heap in use is measured after garbage collection. The name and email
+ * strings are created before the baseline is taken, so only the storage itself is counted.
+ * Run with {@code ./gradlew footprint}.
+ */
+public class StudentStoreFootprint {
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? new int[]{Integer.parseInt(args[0])} : new int[]{1_000_000, 5_000_000};
+        System.out.printf("%-10s %12s %12s %10s%n", "backend", "students", "heap bytes", "per student");
+        for (int students : sizes) {
+            measure("map", new MapStudentStore(), students);
+            measure("columnar", new ColumnarStudentStore(), students);
+        }
+    }
+
+    private static void measure(String backend, StudentStore store, int students) {
+        String[] emails = new String[students];
+        for (int i = 0; i < students; i++) {
+            emails[i] = "student" + i + "@test.com";
+        }
+
+        long baseline = usedHeap();
+        for (int i = 0; i < students; i++) {
+            var studentRecord = new StudentRecord(10000 + i, "Student", "Number", emails[i]);
+            studentRecord.setCourse1Points(i % 600);
+            studentRecord.setCourse3Points(i % 480);
+            store.put(studentRecord);
+        }
+        long used = usedHeap() - baseline;
+
+        System.out.printf("%-10s %12d %12d %10.1f%n", backend, store.size(), used, (double) used / students);
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
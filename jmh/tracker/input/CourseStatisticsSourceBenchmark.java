@@ -0,0 +1,65 @@
+package tracker.input;
+
+import org.openjdk.jmh.annotations.*;
+import tracker.data.StudentData;
+import tracker.data.StudentPointsData;
+import tracker.data.StudentPointsRecord;
+import tracker.data.StudentRecord;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of calculating course statistics from the points history compared with the
+ * running course totals, as the history grows longer for the same number of students. Each
+ * parameter combination runs in its own fork, so the data store singletons start empty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseStatisticsSourceBenchmark {
+    @Param({"1000", "100000"})
+    public int students;
+
+    @Param({"1", "10", "50"})
+    public int recordsPerStudent;
+
+    @Param({"HISTORY", "TOTALS"})
+    public StatisticsHandler.Source source;
+
+    private final StatisticsHandler statisticsHandler = StatisticsHandler.getInstance();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StudentData studentData = StudentData.getInstance();
+        StudentPointsData studentPointsData = StudentPointsData.getInstance();
+        int[] completionPoints = {0, 600, 400, 480, 550};
+        for (int i = 0; i < students; i++) {
+            studentData.addStudent(new StudentRecord("Student", "Number", "student" + i + "@test.com"));
+        }
+        Random random = new Random(students);
+        for (int i = 0; i < students * recordsPerStudent; i++) {
+            studentData.applyPoints(new StudentPointsRecord(10000 + i % students,
+                    random.nextInt(15), random.nextInt(10), random.nextInt(12), random.nextInt(14)),
+                    completionPoints, studentPointsData);
+        }
+        statisticsHandler.setSource(source);
+    }
+
+    @Benchmark
+    public int calculateCourseStatistics() {
+        var courseStudents = new TreeSet<>();
+        statisticsHandler.calculateCourseStatistics(StatisticsHandler.Command.java, cast(courseStudents));
+        return courseStudents.size();
+    }
+
+    // The course student class is private to the handler.
+    @SuppressWarnings("unchecked")
+    private static <T> TreeSet<T> cast(TreeSet<?> set) {
+        return (TreeSet<T>) set;
+    }
+}
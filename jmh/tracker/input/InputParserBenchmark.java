@@ -0,0 +1,86 @@
+package tracker.input;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tracker.data.StudentPointsRecord;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Input normalizing, validation and points parsing with the input parser compared with
+ * the regular expressions and string splitting it replaces. Run with the gc profiler to
+ * compare allocation per line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InputParserBenchmark {
+    private static final String[] LINES = {
+            "John Smith jsmith@hotmail.com",
+            "  Jean-Claude  O'Connor   jcda123@google.net ",
+            "Mary Emelianenko 125367at@zzz.com",
+            "Al Owen u15da125@a1s2f4f7.a1c2c5s4",
+            "Robert Jemison Van de Graaff robertvdgraaff@mit.edu",
+            "Ed Eden a1@a1.a1",
+    };
+
+    private static final String[] POINTS_LINES = {
+            "10000 600 400 0 0",
+            "  10001   5 10  15 20 ",
+            "10002 1 2 3 4",
+            "10003 0 0 480 550",
+    };
+
+    private static final int[] TOTAL_COURSE_POINTS = {0, 600, 400, 480, 550};
+
+    private final AddPointsHandler addPointsHandler = AddPointsHandler.getInstance();
+    private final InputParser inputParser = InputParser.getInstance();
+    private final StudentPointsRecord parsedRecord = new StudentPointsRecord(0, 0, 0, 0, 0);
+    private final int[] parsedElements = new int[AddPointsHandler.NUMBER_OF_ELEMENTS];
+
+    @Benchmark
+    public void regularExpressions(Blackhole blackhole) {
+        for (String line : LINES) {
+            String input = line.trim().replaceAll("\\s+", " ");
+            String[] elements = input.split(" ");
+            blackhole.consume(elements[0].matches("['\\-A-Za-z]{2,}")
+                    && !elements[0].matches("^['\\-].+|.+['\\-]$")
+                    && !elements[0].matches(".+['\\-]{2,}.+"));
+            blackhole.consume(elements[elements.length - 1].matches("^.+@.+\\..+$"));
+        }
+    }
+
+    @Benchmark
+    public void inputParser(Blackhole blackhole) {
+        for (String line : LINES) {
+            String input = inputParser.normalize(line);
+            String[] elements = input.split(" ");
+            blackhole.consume(inputParser.isNameValid(elements[0]));
+            blackhole.consume(inputParser.isEmailValid(elements[elements.length - 1]));
+        }
+    }
+
+    @Benchmark
+    public void splitPointsLines(Blackhole blackhole) {
+        for (String line : POINTS_LINES) {
+            String[] elements = line.trim().replaceAll("\\s+", " ").split(" ");
+            int[] values = new int[elements.length];
+            boolean valid = elements.length == 5;
+            for (int i = 0; valid && (i < elements.length); i++) {
+                values[i] = Integer.parseInt(elements[i]);
+                valid = (values[i] >= 0) && ((i == 0) || (values[i] <= TOTAL_COURSE_POINTS[i]));
+            }
+            blackhole.consume(valid ? new StudentPointsRecord(values[0], values[1], values[2], values[3], values[4]) : null);
+        }
+    }
+
+    @Benchmark
+    public void parsePointsLines(Blackhole blackhole) {
+        for (String line : POINTS_LINES) {
+            blackhole.consume(addPointsHandler.parseStudentPointsRecord(line, false, parsedRecord, parsedElements));
+        }
+    }
+}
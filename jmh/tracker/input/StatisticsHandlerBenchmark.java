@@ -0,0 +1,126 @@
+package tracker.input;
+
+import org.openjdk.jmh.annotations.*;
+import tracker.data.CourseStatisticsRecord;
+import tracker.data.StudentPointsData;
+import tracker.data.StudentPointsRecord;
+import tracker.output.ConsoleWriter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of calculating overall and course statistics, with two student points
+ * records per student, and of showing course statistics again while nothing changes.
+ * Each dataset size runs in its own fork, so the data store singleton starts empty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsHandlerBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int students;
+
+    private final StatisticsHandler statisticsHandler = StatisticsHandler.getInstance();
+    private final StudentPointsData studentPointsData = StudentPointsData.getInstance();
+
+    // Course points of each student, for the completion percentage benchmarks.
+    private int[] completionPoints;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(students);
+        completionPoints = random.ints(students, 0, 601).toArray();
+        for (int i = 0; i < 2 * students; i++) {
+            studentPointsData.addStudentPoints(new StudentPointsRecord(10000 + i / 2,
+                    random.nextInt(300), random.nextInt(200), random.nextInt(240), random.nextInt(275)));
+        }
+    }
+
+    @Benchmark
+    public List<CourseStatisticsRecord> calculateOverallStatistics() {
+        List<CourseStatisticsRecord> courseStatistics = new ArrayList<>();
+        statisticsHandler.calculateOverallStatistics(courseStatistics);
+        return courseStatistics;
+    }
+
+    @Benchmark
+    public int calculateCourseStatistics() {
+        var courseStudents = new TreeSet<>();
+        statisticsHandler.calculateCourseStatistics(StatisticsHandler.Command.java, cast(courseStudents));
+        return courseStudents.size();
+    }
+
+    @Benchmark
+    public int calculateTop20CourseStatistics() {
+        var courseStudents = new TreeSet<>();
+        statisticsHandler.calculateCourseStatistics(StatisticsHandler.Command.java, 20, cast(courseStudents));
+        return courseStudents.size();
+    }
+
+    @Benchmark
+    public int renderCourseStatistics() {
+        ConsoleWriter out = ConsoleWriter.textWriter();
+        statisticsHandler.renderCourseStatistics(StatisticsHandler.Command.java, 0, out);
+        return out.text().length();
+    }
+
+    @Benchmark
+    public int cachedCourseStatistics() {
+        return statisticsHandler.renderStatistics(StatisticsHandler.Command.java, 0,
+                out -> statisticsHandler.renderCourseStatistics(StatisticsHandler.Command.java, 0, out)).length();
+    }
+
+    @Benchmark
+    public int hashSetEnrolledInJavaAndDsa() {
+        HashSet<Integer> java = new HashSet<>();
+        HashSet<Integer> dsa = new HashSet<>();
+        for (StudentPointsRecord studentPointsRecord : studentPointsData.getStudentPoints()) {
+            if (studentPointsRecord.course1Points() > 0) java.add(studentPointsRecord.studentId());
+            if (studentPointsRecord.course2Points() > 0) dsa.add(studentPointsRecord.studentId());
+        }
+        java.retainAll(dsa);
+        return java.size();
+    }
+
+    @Benchmark
+    public int bitSetEnrolledInJavaAndDsa() {
+        BitSet enrolledStudents = studentPointsData.getEnrolledStudents(1, 2);
+        return enrolledStudents.cardinality();
+    }
+
+    @Benchmark
+    public int bigDecimalCompletion() {
+        int sum = 0;
+        BigDecimal coursePoints = BigDecimal.valueOf(600);
+        for (int points : completionPoints) {
+            sum += BigDecimal.valueOf(100L * points).divide(coursePoints, RoundingMode.HALF_UP).intValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int fixedPointCompletion() {
+        int sum = 0;
+        for (int points : completionPoints) {
+            sum += StatisticsHandler.completionPercent(points, 600);
+        }
+        return sum;
+    }
+
+    // The course student class is private to the handler.
+    @SuppressWarnings("unchecked")
+    private static <T> TreeSet<T> cast(TreeSet<?> set) {
+        return (TreeSet<T>) set;
+    }
+}
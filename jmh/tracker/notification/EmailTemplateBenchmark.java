@@ -0,0 +1,55 @@
+package tracker.notification;
+
+import org.openjdk.jmh.annotations.*;
+import tracker.data.StudentRecord;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building one completion email with chained String.replace calls compared with
+ * a parsed email template rendered into a reused buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+    private static final String TEMPLATE = """
+            To: %EMAIL_ADDRESS%
+            Re: Your Learning Progress
+            Hello, %FULL_USER_NAME%! You have accomplished our %COURSE_NAME% course!""";
+
+    private final StudentRecord studentRecord = new StudentRecord(10000, "Penelope", "Smith", "psmith@test.com");
+    private final EmailTemplate emailTemplate = EmailTemplate.parse(TEMPLATE);
+    private final StringBuilder email = new StringBuilder();
+
+    @Benchmark
+    public String chainedReplace() {
+        final String[] courseNames = new String[5];
+        courseNames[1] = "Java";
+        courseNames[2] = "DSA";
+        courseNames[3] = "Databases";
+        courseNames[4] = "Spring";
+
+        return TEMPLATE
+                .replace("%EMAIL_ADDRESS%", studentRecord.email())
+                .replace("%FULL_USER_NAME%", studentRecord.firstName() + " " + studentRecord.lastName())
+                .replace("%COURSE_NAME%", courseNames[3]);
+    }
+
+    @Benchmark
+    public String parsedTemplate() {
+        email.setLength(0);
+        emailTemplate.render(studentRecord, "Databases", email);
+        return email.toString();
+    }
+
+    @Benchmark
+    public int parsedTemplateWithoutString() {
+        email.setLength(0);
+        emailTemplate.render(studentRecord, "Databases", email);
+        return email.length();
+    }
+}
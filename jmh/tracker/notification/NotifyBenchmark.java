@@ -0,0 +1,76 @@
+package tracker.notification;
+
+import org.openjdk.jmh.annotations.*;
+import tracker.data.StudentData;
+import tracker.data.StudentRecord;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of sending notifications when one student in ten has completed a course.
+ * Console output is discarded, so this measures finding the students and building the
+ * emails rather than the terminal. Submitting the completions to the notification
+ * dispatcher instead measures what the thread entering data pays when workers send them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotifyBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int students;
+
+    private final Notify notify = Notify.getInstance();
+    private final NotificationDispatcher notificationDispatcher = NotificationDispatcher.getInstance();
+    private final StudentData studentData = StudentData.getInstance();
+
+    private int[] completedStudentIds;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        completedStudentIds = new int[students / 10];
+        for (int i = 0; i < students; i++) {
+            int studentId = studentData.addStudent(new StudentRecord("Student", "Number" + i, "student" + i + "@test.com"));
+            if (i % 10 == 0) {
+                completedStudentIds[i / 10] = studentId;
+            }
+        }
+
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        notificationDispatcher.start(Runtime.getRuntime().availableProcessors(), completedStudentIds.length);
+    }
+
+    @Setup(Level.Invocation)
+    public void flagCompletedCourses() {
+        // Sending notifications clears the flags, so set them again before each call.
+        for (int studentId : completedStudentIds) {
+            studentData.setCourseNotificationStatus(studentId, 1 + studentId % 4, 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        notificationDispatcher.stop();
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public void sendNotifications() {
+        notify.sendNotifications();
+    }
+
+    @Benchmark
+    public int submitNotifications() {
+        int queued = 0;
+        for (int studentId : completedStudentIds) {
+            if (notificationDispatcher.submit(studentId, 1 + studentId % 4)) queued++;
+        }
+        return queued;
+    }
+}
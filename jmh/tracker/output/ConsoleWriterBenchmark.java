@@ -0,0 +1,55 @@
+package tracker.output;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of printing a course statistics table one printf per line compared with the
+ * buffered console writer. Output goes to a discarding stream, so this measures
+ * formatting and stream calls rather than the terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsoleWriterBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private final ConsoleWriter console = ConsoleWriter.getInstance();
+
+    private PrintStream systemOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        systemOut = System.out;
+        // Autoflush like the console stream.
+        System.setOut(new PrintStream(OutputStream.nullOutputStream(), true));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(systemOut);
+    }
+
+    @Benchmark
+    public void printfPerLine() {
+        for (int i = 0; i < rows; i++) {
+            System.out.printf("%-7d %-6d %.1f%%%n", 10000 + i, i % 600, BigDecimal.valueOf(i % 101));
+        }
+    }
+
+    @Benchmark
+    public void consoleWriter() {
+        for (int i = 0; i < rows; i++) {
+            console.print(10000 + i, 7).print(" ").print(i % 600, 6).print(" ").printPercent((i % 101) * 10L).println();
+        }
+        console.flush();
+    }
+}
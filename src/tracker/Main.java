@@ -1,20 +1,191 @@
 package tracker;
 
+import tracker.data.Journal;
+import tracker.data.StudentData;
+import tracker.data.StudentPointsData;
+import tracker.input.ImportHandler;
+import tracker.input.InputParser;
 import tracker.input.MainLoopHandler;
+import tracker.input.StatisticsHandler;
+import tracker.notification.FileNotificationSender;
+import tracker.notification.NotificationDispatcher;
+import tracker.notification.Notify;
+import tracker.output.ConsoleWriter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Scanner;
 
 public class Main {
+    private static final ConsoleWriter console = ConsoleWriter.getInstance();
+    private static final ImportHandler importHandler = ImportHandler.getInstance();
     private static final MainLoopHandler mainLoopHandler = MainLoopHandler.getInstance();
+    private static final NotificationDispatcher notificationDispatcher = NotificationDispatcher.getInstance();
+    private static final StatisticsHandler statisticsHandler = StatisticsHandler.getInstance();
+
+    private static final int NOTIFICATION_QUEUE_CAPACITY = 10_000;
 
     public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
+        // Parse command line options.
+        Path dataDirectory = null;
+        StudentData.Storage storage = StudentData.Storage.MAP;
+        StudentPointsData.Storage pointsStorage = StudentPointsData.Storage.HEAP;
+        boolean asyncNotifications = false;
+        Path notificationFile = null;
+        Path emailTemplateDirectory = null;
+        int listPageSize = 0;
+        StatisticsHandler.Source statisticsSource = StatisticsHandler.Source.HISTORY;
+        // Import option, Import file.
+        List<Map.Entry<String, Path>> imports = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--data-dir") && (i + 1 < args.length)) {
+                dataDirectory = Path.of(args[++i]);
+            } else if (args[i].equals("--storage") && (i + 1 < args.length) && isStorage(args[i + 1])) {
+                storage = StudentData.Storage.valueOf(args[++i].toUpperCase(Locale.ROOT));
+            } else if (args[i].equals("--points-storage") && (i + 1 < args.length) && isPointsStorage(args[i + 1])) {
+                pointsStorage = StudentPointsData.Storage.valueOf(args[++i].toUpperCase(Locale.ROOT));
+            } else if (args[i].equals("--async-notifications")) {
+                asyncNotifications = true;
+            } else if (args[i].equals("--notification-file") && (i + 1 < args.length)) {
+                notificationFile = Path.of(args[++i]);
+            } else if (args[i].equals("--email-templates") && (i + 1 < args.length)) {
+                emailTemplateDirectory = Path.of(args[++i]);
+            } else if (args[i].equals("--page-size") && (i + 1 < args.length) && isPageSize(args[i + 1])) {
+                listPageSize = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--course-statistics") && (i + 1 < args.length) && isStatisticsSource(args[i + 1])) {
+                statisticsSource = StatisticsHandler.Source.valueOf(args[++i].toUpperCase(Locale.ROOT));
+            } else if ((args[i].equals("--import-students") || args[i].equals("--import-points")) && (i + 1 < args.length)) {
+                imports.add(Map.entry(args[i], Path.of(args[++i])));
+            } else {
+                System.err.printf("Unknown option: %s%n", args[i]);
+                System.err.println("Usage: tracker [--data-dir <directory>] [--storage map|columnar] [--points-storage heap|mapped] [--async-notifications] [--notification-file <file>] [--email-templates <directory>] [--page-size <ids>] [--course-statistics history|totals] [--import-students <file>] [--import-points <file>]");
+                System.exit(2);
+            }
+        }
+
+        // Set up storage. The points file of mapped storage goes in the data directory.
+        try {
+            if (dataDirectory != null) {
+                Files.createDirectories(dataDirectory);
+            }
+            StudentData.getInstance().setStorage(storage);
+            StudentPointsData.getInstance().setStorage(pointsStorage, dataDirectory);
+        } catch (IOException e) {
+            System.err.printf("Unable to set up storage: %s%n", e.getMessage());
+            System.exit(1);
+        }
+
+        // Rebuild data stores from the journal when running with a data directory.
+        Journal journal = null;
+        if (dataDirectory != null) {
+            try {
+                journal = Journal.open(dataDirectory, StudentData.getInstance(), StudentPointsData.getInstance());
+            } catch (IOException e) {
+                System.err.printf("Unable to open journal: %s%n", e.getMessage());
+                System.exit(1);
+            }
+
+            // Commit the journal if the program is stopped without exiting the main loop.
+            Journal openJournal = journal;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    notificationDispatcher.stop();
+                    console.flush();
+                    openJournal.close();
+                } catch (IOException ignored) {
+                }
+            }));
+        }
+
+        // Send notifications to a file instead of the console, with course email templates,
+        // and as courses are completed rather than only with the notify command, if requested.
+        if (notificationFile != null) {
+            Notify.getInstance().setNotificationSender(new FileNotificationSender(notificationFile));
+        }
+        if (emailTemplateDirectory != null) {
+            try {
+                Notify.getInstance().loadEmailTemplates(emailTemplateDirectory);
+            } catch (IOException e) {
+                System.err.printf("Unable to load email templates: %s%n", e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (asyncNotifications) {
+            notificationDispatcher.start(Runtime.getRuntime().availableProcessors(), NOTIFICATION_QUEUE_CAPACITY);
+        }
+
+        boolean success = true;
+        // Changes stop being accepted once the journal cannot be written.
+        try {
+            if (imports.isEmpty()) {
+                Scanner scanner = new Scanner(System.in);
+
+                console.println("Learning Progress Tracker");
+                mainLoopHandler.setListPageSize(listPageSize);
+                statisticsHandler.setSource(statisticsSource);
+
+                // Do main loop. Show buffered output even if input ends without an exit command.
+                try {
+                    mainLoopHandler.doMainLoop(scanner);
+                } finally {
+                    console.flush();
+                }
+
+                scanner.close();
+            } else {
+                // Import files in the order given instead of running the main loop.
+                for (Map.Entry<String, Path> entry : imports) {
+                    if (entry.getKey().equals("--import-students")) {
+                        success &= importHandler.importStudents(entry.getValue());
+                    } else {
+                        success &= importHandler.importPoints(entry.getValue());
+                    }
+                }
+            }
+        } catch (UncheckedIOException e) {
+            console.flush();
+            System.err.printf("%s: %s%n", e.getMessage(), e.getCause().getMessage());
+            System.exit(1);
+        }
 
-        System.out.println("Learning Progress Tracker");
+        // Finish sending queued notifications, which update notification statuses.
+        notificationDispatcher.stop();
+        console.flush();
 
-        // Do main loop.
-        mainLoopHandler.doMainLoop(scanner);
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.printf("Unable to write journal: %s%n", e.getMessage());
+                System.exit(1);
+            }
+        }
+
+        if (!success) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean isStorage(String value) {
+        return value.equals("map") || value.equals("columnar");
+    }
+
+    private static boolean isPointsStorage(String value) {
+        return value.equals("heap") || value.equals("mapped");
+    }
+
+    private static boolean isStatisticsSource(String value) {
+        return value.equals("history") || value.equals("totals");
+    }
 
-        scanner.close();
+    private static boolean isPageSize(String value) {
+        int[] pageSize = new int[1];
+        return (InputParser.getInstance().parseInts(value, false, pageSize) == 1) && (pageSize[0] > 0);
     }
 }
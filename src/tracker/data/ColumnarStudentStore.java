@@ -0,0 +1,314 @@
+package tracker.data;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Student store keeping students in columns indexed by student id - 10000. Course points
+ * are held in int arrays and notification statuses in byte arrays, one per course, so
+ * there is no object per student besides the name and email strings. Records handed out
+ * are copies built from the columns.<br>
+ * Adding and removing students, which can grow the columns, take the write lock. Reading
+ * and changing existing students take the read lock, so different students can be used
+ * from several threads at once.
+ */
+final class ColumnarStudentStore implements StudentStore {
+    private static final int FIRST_STUDENT_ID = 10000;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Slots holding a student.
+    private final BitSet present = new BitSet();
+    private String[] firstNames = new String[INITIAL_CAPACITY];
+    private String[] lastNames = new String[INITIAL_CAPACITY];
+    private String[] emails = new String[INITIAL_CAPACITY];
+    // Columns indexed by course id. Index 0 is unused.
+    private final int[][] coursePoints = new int[5][];
+    private final byte[][] courseNotificationStatus = new byte[5][];
+    private int size = 0;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    ColumnarStudentStore() {
+        for (int courseId = 1; courseId < 5; courseId++) {
+            coursePoints[courseId] = new int[INITIAL_CAPACITY];
+            courseNotificationStatus[courseId] = new byte[INITIAL_CAPACITY];
+        }
+    }
+
+    @Override
+    public void put(StudentRecord studentRecord) {
+        int slot = studentRecord.studentId() - FIRST_STUDENT_ID;
+        if (slot < 0) {
+            throw new IllegalArgumentException("Student id below " + FIRST_STUDENT_ID + ": " + studentRecord.studentId());
+        }
+        lock.writeLock().lock();
+        try {
+            putSlot(slot, studentRecord);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putSlot(int slot, StudentRecord studentRecord) {
+        ensureCapacity(slot + 1);
+        if (!present.get(slot)) {
+            present.set(slot);
+            size++;
+        }
+        firstNames[slot] = studentRecord.firstName();
+        lastNames[slot] = studentRecord.lastName();
+        emails[slot] = studentRecord.email();
+        coursePoints[1][slot] = studentRecord.course1Points();
+        coursePoints[2][slot] = studentRecord.course2Points();
+        coursePoints[3][slot] = studentRecord.course3Points();
+        coursePoints[4][slot] = studentRecord.course4Points();
+        courseNotificationStatus[1][slot] = (byte) studentRecord.course1NotificationStatus();
+        courseNotificationStatus[2][slot] = (byte) studentRecord.course2NotificationStatus();
+        courseNotificationStatus[3][slot] = (byte) studentRecord.course3NotificationStatus();
+        courseNotificationStatus[4][slot] = (byte) studentRecord.course4NotificationStatus();
+    }
+
+    @Override
+    public StudentRecord get(int studentId) {
+        lock.readLock().lock();
+        try {
+            int slot = slot(studentId);
+            return slot < 0 ? null : record(slot, new StudentRecord(null, null, null));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getCoursePoints(int studentId, int courseId) {
+        lock.readLock().lock();
+        try {
+            int slot = slot(studentId);
+            if (slot < 0) {
+                return -1;
+            }
+            checkCourseId(courseId);
+            return coursePoints[courseId][slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getCourseNotificationStatus(int studentId, int courseId) {
+        lock.readLock().lock();
+        try {
+            int slot = slot(studentId);
+            if (slot < 0) {
+                return -1;
+            }
+            checkCourseId(courseId);
+            return courseNotificationStatus[courseId][slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public StudentRecord remove(int studentId) {
+        lock.writeLock().lock();
+        try {
+            int slot = slot(studentId);
+            if (slot < 0) {
+                return null;
+            }
+            StudentRecord studentRecord = record(slot, new StudentRecord(null, null, null));
+            present.clear(slot);
+            size--;
+            firstNames[slot] = null;
+            lastNames[slot] = null;
+            emails[slot] = null;
+            for (int courseId = 1; courseId < 5; courseId++) {
+                coursePoints[courseId][slot] = 0;
+                courseNotificationStatus[courseId][slot] = 0;
+            }
+            return studentRecord;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int nextId(int fromId, int toId) {
+        lock.readLock().lock();
+        try {
+            int slot = present.nextSetBit(Math.max(fromId - FIRST_STUDENT_ID, 0));
+            return ((slot >= 0) && (slot < toId - FIRST_STUDENT_ID)) ? slot + FIRST_STUDENT_ID : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<StudentRecord> action) {
+        lock.readLock().lock();
+        try {
+            var studentRecord = new StudentRecord(null, null, null);
+            for (int slot = present.nextSetBit(0); slot >= 0; slot = present.nextSetBit(slot + 1)) {
+                action.accept(record(slot, studentRecord));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean addPoints(StudentPointsRecord studentPointsRecord) {
+        lock.readLock().lock();
+        try {
+            int slot = slot(studentPointsRecord.studentId());
+            if (slot < 0) {
+                return false;
+            }
+            coursePoints[1][slot] += studentPointsRecord.course1Points();
+            coursePoints[2][slot] += studentPointsRecord.course2Points();
+            coursePoints[3][slot] += studentPointsRecord.course3Points();
+            coursePoints[4][slot] += studentPointsRecord.course4Points();
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int applyPoints(StudentPointsRecord studentPointsRecord, int[] completionPoints) {
+        lock.readLock().lock();
+        try {
+            int slot = slot(studentPointsRecord.studentId());
+            if (slot < 0) {
+                return -1;
+            }
+            int completedCourses = 0;
+            for (int courseId = 1; courseId < 5; courseId++) {
+                int points = coursePoints[courseId][slot] += studentPointsRecord.coursePoints(courseId);
+                if ((points >= completionPoints[courseId]) && (courseNotificationStatus[courseId][slot] == 0)) {
+                    courseNotificationStatus[courseId][slot] = 1;
+                    completedCourses |= 1 << courseId;
+                }
+            }
+            return completedCourses;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean setCourseNotificationStatus(int studentId, int courseId, int status) {
+        lock.readLock().lock();
+        try {
+            int slot = slot(studentId);
+            if (slot < 0) {
+                return false;
+            }
+            checkCourseId(courseId);
+            courseNotificationStatus[courseId][slot] = (byte) status;
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean setEmail(int studentId, String email) {
+        lock.readLock().lock();
+        try {
+            int slot = slot(studentId);
+            if (slot < 0) {
+                return false;
+            }
+            emails[slot] = email;
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearSlots();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clearSlots() {
+        present.clear();
+        firstNames = new String[INITIAL_CAPACITY];
+        lastNames = new String[INITIAL_CAPACITY];
+        emails = new String[INITIAL_CAPACITY];
+        for (int courseId = 1; courseId < 5; courseId++) {
+            coursePoints[courseId] = new int[INITIAL_CAPACITY];
+            courseNotificationStatus[courseId] = new byte[INITIAL_CAPACITY];
+        }
+        size = 0;
+    }
+
+    /**
+     * Get slot of a student.
+     *
+     * @return Slot, or -1 if the student was not found.
+     */
+    private int slot(int studentId) {
+        int slot = studentId - FIRST_STUDENT_ID;
+        return ((slot >= 0) && present.get(slot)) ? slot : -1;
+    }
+
+    private static void checkCourseId(int courseId) {
+        if ((courseId < 1) || (courseId > 4)) {
+            throw new IllegalStateException("Unexpected value: " + courseId);
+        }
+    }
+
+    /**
+     * Fill a student record from a slot.
+     */
+    private StudentRecord record(int slot, StudentRecord studentRecord) {
+        studentRecord.setStudentId(slot + FIRST_STUDENT_ID);
+        studentRecord.setFirstName(firstNames[slot]);
+        studentRecord.setLastName(lastNames[slot]);
+        studentRecord.setEmail(emails[slot]);
+        studentRecord.setCourse1Points(coursePoints[1][slot]);
+        studentRecord.setCourse2Points(coursePoints[2][slot]);
+        studentRecord.setCourse3Points(coursePoints[3][slot]);
+        studentRecord.setCourse4Points(coursePoints[4][slot]);
+        studentRecord.setCourse1NotificationStatus(courseNotificationStatus[1][slot]);
+        studentRecord.setCourse2NotificationStatus(courseNotificationStatus[2][slot]);
+        studentRecord.setCourse3NotificationStatus(courseNotificationStatus[3][slot]);
+        studentRecord.setCourse4NotificationStatus(courseNotificationStatus[4][slot]);
+        return studentRecord;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= firstNames.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, firstNames.length * 2);
+        firstNames = Arrays.copyOf(firstNames, newCapacity);
+        lastNames = Arrays.copyOf(lastNames, newCapacity);
+        emails = Arrays.copyOf(emails, newCapacity);
+        for (int courseId = 1; courseId < 5; courseId++) {
+            coursePoints[courseId] = Arrays.copyOf(coursePoints[courseId], newCapacity);
+            courseNotificationStatus[courseId] = Arrays.copyOf(courseNotificationStatus[courseId], newCapacity);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package tracker.data;
+
+import java.util.Objects;
+
+public final class CourseStatisticsRecord {
+    private final int courseId;
+    private final int enrollment;
+    private final int activity;
+    private final long gradeSum;
+
+    public CourseStatisticsRecord(
+            int courseId,
+            int enrollment,
+            int activity,
+            long gradeSum
+    ) {
+        this.courseId = courseId;
+        this.enrollment = enrollment;
+        this.activity = activity;
+        this.gradeSum = gradeSum;
+    }
+
+    public int courseId() {
+        return courseId;
+    }
+
+    /**
+     * Number of distinct students with points in the course.
+     */
+    public int enrollment() {
+        return enrollment;
+    }
+
+    /**
+     * Number of student points records with points in the course. This is also the
+     * number of grades in the course.
+     */
+    public int activity() {
+        return activity;
+    }
+
+    public long gradeSum() {
+        return gradeSum;
+    }
+
+    public double averageGrade() {
+        return activity == 0 ? 0.0 : (double) gradeSum / activity;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (CourseStatisticsRecord) obj;
+        return this.courseId == that.courseId &&
+                this.enrollment == that.enrollment &&
+                this.activity == that.activity &&
+                this.gradeSum == that.gradeSum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(courseId, enrollment, activity, gradeSum);
+    }
+
+    @Override
+    public String toString() {
+        return "CourseStatisticsRecord[" +
+                "courseId=" + courseId + ", " +
+                "enrollment=" + enrollment + ", " +
+                "activity=" + activity + ", " +
+                "gradeSum=" + gradeSum + ']';
+    }
+}
@@ -0,0 +1,60 @@
+package tracker.data;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of ids kept in ascending order. Ids are usually handed out in ascending
+ * order, so adding is normally an append.
+ */
+final class IdList {
+    private int[] ids = new int[16];
+    private int size = 0;
+
+    /**
+     * Add id.
+     *
+     * @param id Id to add. The id must not already be in the list.
+     */
+    void add(int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        if ((size == 0) || (ids[size - 1] < id)) {
+            ids[size++] = id;
+        } else {
+            int index = -(Arrays.binarySearch(ids, 0, size, id) + 1);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+
+    /**
+     * Remove id.
+     *
+     * @param id Id to remove.
+     * @return true if the id was found and removed.
+     */
+    boolean remove(int id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        ids = new int[16];
+        size = 0;
+    }
+}
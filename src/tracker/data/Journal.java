@@ -0,0 +1,556 @@
+package tracker.data;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append only binary journal of data store changes.<br>
+ * Each entry is written as: int length, byte entry type, payload, int CRC32 of entry type
+ * and payload. Entries are buffered and written by a commit thread which forces them to
+ * disk in batches, so a single disk flush covers every change made during the commit
+ * interval. A change is on disk up to the commit interval after it is made; callers that
+ * confirm a change to the user call {@link #sync()} first. Once a commit fails no more
+ * changes are accepted.<br>
+ * Every checkpoint interval the commit thread writes the data stores to a snapshot and
+ * empties the journal. Each emptying starts a new journal generation; the snapshot records
+ * the generation it includes so journal entries are never applied twice.<br>
+ * The data stores record a change while holding their own lock for it, so taking the data
+ * store locks before the journal lock stops changes between being made and being recorded.
+ */
+public final class Journal implements Closeable {
+    private static final int MAGIC = 0x4C50544A; // "LPTJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAX_ENTRY_SIZE = 1 << 20;
+
+    static final String JOURNAL_FILE = "tracker.journal";
+    static final String SNAPSHOT_FILE = "tracker.snapshot";
+
+    private static final long COMMIT_INTERVAL_MILLIS = 10;
+    private static final int COMMIT_BATCH_SIZE = 1 << 16;
+    private static final long CHECKPOINT_ENTRIES = 1_000_000;
+
+    static final byte ADD_STUDENT = 1;
+    static final byte UPDATE_EMAIL = 2;
+    static final byte UPDATE_POINTS = 3;
+    static final byte SET_COURSE_NOTIFICATION_STATUS = 4;
+    static final byte DELETE_STUDENT = 5;
+    static final byte ADD_STUDENT_POINTS = 6;
+    static final byte DELETE_STUDENT_POINTS = 7;
+
+    private final Path snapshotPath;
+    private final FileChannel channel;
+    private final Thread commitThread;
+    // Held while writing to or resetting the journal file.
+    private final Object channelLock = new Object();
+    private volatile long generation = 0;
+
+    // Entry being encoded.
+    private final EntryBuffer entryBytes = new EntryBuffer();
+    private final DataOutputStream entry = new DataOutputStream(entryBytes);
+    private final CRC32 crc = new CRC32();
+
+    // Entries waiting for the commit thread.
+    private ByteArrayOutputStream pendingBytes = new ByteArrayOutputStream(COMMIT_BATCH_SIZE);
+    private long appendedEntries = 0;
+    private long committedEntries = 0;
+    private IOException commitFailure = null;
+    private boolean closed = false;
+    private long checkpointEntries = CHECKPOINT_ENTRIES;
+    private long entriesSinceCheckpoint = 0;
+    private boolean checkpointDue = false;
+
+    private StudentData studentData;
+    private StudentPointsData studentPointsData;
+
+    private Journal(Path snapshotPath, FileChannel channel) {
+        this.snapshotPath = snapshotPath;
+        this.channel = channel;
+        commitThread = new Thread(this::commitLoop, "journal-commit");
+        commitThread.setDaemon(true);
+    }
+
+    /**
+     * Open journal in a data directory and rebuild the data stores from the latest snapshot
+     * and the journal entries after it. The journal is then attached to the data stores so
+     * later changes are recorded.
+     *
+     * @param directory         Data directory. Journal and snapshot files are created in it
+     *                          if they do not exist.
+     * @param studentData       Empty student data store to rebuild.
+     * @param studentPointsData Empty student points data store to rebuild.
+     * @return Open journal.
+     * @throws IOException If the journal or snapshot could not be opened or read.
+     */
+    public static Journal open(Path directory, StudentData studentData, StudentPointsData studentPointsData) throws IOException {
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        long snapshotGeneration = -1;
+        if (Files.exists(snapshotPath)) {
+            snapshotGeneration = Snapshot.read(snapshotPath, studentData, studentPointsData);
+        }
+
+        FileChannel channel = FileChannel.open(directory.resolve(JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Journal journal = new Journal(snapshotPath, channel);
+        try {
+            journal.replay(snapshotGeneration, studentData, studentPointsData);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        // Restored records are aggregated once they are all in, rather than one at a time.
+        studentPointsData.rebuildAggregates();
+        journal.studentData = studentData;
+        journal.studentPointsData = studentPointsData;
+        studentData.setJournal(journal);
+        studentPointsData.setJournal(journal);
+        journal.commitThread.start();
+        return journal;
+    }
+
+    /**
+     * Wait until all changes recorded so far are on disk.
+     *
+     * @throws IOException If the journal could not be written.
+     */
+    public void sync() throws IOException {
+        synchronized (this) {
+            long target = appendedEntries;
+            notifyAll();
+            while ((committedEntries < target) && (commitFailure == null) && !closed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for journal commit");
+                }
+            }
+            if (commitFailure != null) {
+                throw commitFailure;
+            }
+        }
+    }
+
+    /**
+     * Write a snapshot of the data stores and empty the journal.
+     *
+     * @throws IOException If the snapshot or journal could not be written.
+     */
+    public void checkpoint() throws IOException {
+        // Stop changes to the data stores while the snapshot is written. The data store locks
+        // are taken before the journal lock, the same order the data stores use.
+        studentData.lockAll();
+        try {
+            synchronized (studentPointsData) {
+                synchronized (this) {
+                    if (closed) {
+                        throw new IllegalStateException("Journal is closed");
+                    }
+
+                    // The snapshot includes everything appended so far, committed or not.
+                    Snapshot.write(snapshotPath, generation, studentData, studentPointsData);
+                    synchronized (channelLock) {
+                        reset(generation + 1);
+                    }
+                    pendingBytes = new ByteArrayOutputStream(COMMIT_BATCH_SIZE);
+                    committedEntries = appendedEntries;
+                    entriesSinceCheckpoint = 0;
+                    checkpointDue = false;
+                    notifyAll();
+                }
+            }
+        } finally {
+            studentData.unlockAll();
+        }
+    }
+
+    /**
+     * Set number of journal entries between automatic checkpoints.
+     *
+     * @param checkpointEntries Number of journal entries.
+     */
+    void setCheckpointEntries(long checkpointEntries) {
+        synchronized (this) {
+            this.checkpointEntries = checkpointEntries;
+        }
+    }
+
+    /**
+     * Commit remaining changes, detach the journal from the data stores and close it.
+     *
+     * @throws IOException If the journal could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            commitThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            // Commit anything appended after the commit thread stopped.
+            commit();
+        } finally {
+            studentData.setJournal(null);
+            studentPointsData.setJournal(null);
+            channel.close();
+        }
+        if (commitFailure != null) {
+            throw commitFailure;
+        }
+    }
+
+    void logAddStudent(StudentRecord studentRecord) {
+        synchronized (this) {
+            try {
+                entry.writeByte(ADD_STUDENT);
+                entry.writeInt(studentRecord.studentId());
+                entry.writeUTF(studentRecord.firstName());
+                entry.writeUTF(studentRecord.lastName());
+                entry.writeUTF(studentRecord.email());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            append();
+        }
+    }
+
+    void logUpdateEmail(int studentId, String email) {
+        synchronized (this) {
+            try {
+                entry.writeByte(UPDATE_EMAIL);
+                entry.writeInt(studentId);
+                entry.writeUTF(email);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            append();
+        }
+    }
+
+    void logUpdatePoints(StudentPointsRecord studentPointsRecord) {
+        synchronized (this) {
+            try {
+                entry.writeByte(UPDATE_POINTS);
+                writePoints(studentPointsRecord);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            append();
+        }
+    }
+
+    void logSetCourseNotificationStatus(int studentId, int courseId, int status) {
+        synchronized (this) {
+            try {
+                entry.writeByte(SET_COURSE_NOTIFICATION_STATUS);
+                entry.writeInt(studentId);
+                entry.writeByte(courseId);
+                entry.writeByte(status);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            append();
+        }
+    }
+
+    void logDeleteStudent(int studentId) {
+        synchronized (this) {
+            try {
+                entry.writeByte(DELETE_STUDENT);
+                entry.writeInt(studentId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            append();
+        }
+    }
+
+    void logAddStudentPoints(StudentPointsRecord studentPointsRecord) {
+        synchronized (this) {
+            try {
+                entry.writeByte(ADD_STUDENT_POINTS);
+                entry.writeInt(studentPointsRecord.studentPointsId());
+                writePoints(studentPointsRecord);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            append();
+        }
+    }
+
+    void logDeleteStudentPoints(int studentPointsId) {
+        synchronized (this) {
+            try {
+                entry.writeByte(DELETE_STUDENT_POINTS);
+                entry.writeInt(studentPointsId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            append();
+        }
+    }
+
+    private void writePoints(StudentPointsRecord studentPointsRecord) throws IOException {
+        entry.writeInt(studentPointsRecord.studentId());
+        entry.writeInt(studentPointsRecord.course1Points());
+        entry.writeInt(studentPointsRecord.course2Points());
+        entry.writeInt(studentPointsRecord.course3Points());
+        entry.writeInt(studentPointsRecord.course4Points());
+    }
+
+    /**
+     * Move the encoded entry to the pending batch. Caller must hold the journal lock.
+     */
+    private void append() {
+        if (closed) {
+            entryBytes.reset();
+            throw new IllegalStateException("Journal is closed");
+        }
+        // The change is already made in memory, but nothing more reaches the disk.
+        if (commitFailure != null) {
+            entryBytes.reset();
+            throw new UncheckedIOException("Unable to write journal", commitFailure);
+        }
+
+        crc.reset();
+        crc.update(entryBytes.buffer(), 0, entryBytes.size());
+
+        int length = entryBytes.size();
+        pendingBytes.write(length >>> 24);
+        pendingBytes.write(length >>> 16);
+        pendingBytes.write(length >>> 8);
+        pendingBytes.write(length);
+        pendingBytes.write(entryBytes.buffer(), 0, length);
+        int checksum = (int) crc.getValue();
+        pendingBytes.write(checksum >>> 24);
+        pendingBytes.write(checksum >>> 16);
+        pendingBytes.write(checksum >>> 8);
+        pendingBytes.write(checksum);
+        entryBytes.reset();
+
+        appendedEntries++;
+        if (pendingBytes.size() >= COMMIT_BATCH_SIZE) {
+            notifyAll();
+        }
+
+        // The caller holds data store locks, so leave the checkpoint to the commit thread.
+        if ((++entriesSinceCheckpoint >= checkpointEntries) && !checkpointDue) {
+            checkpointDue = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Commit thread. Writes and forces pending entries every commit interval, or sooner
+     * when a batch fills up or a sync is requested, and writes checkpoints when due.
+     */
+    private void commitLoop() {
+        while (true) {
+            boolean checkpoint;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if ((pendingBytes.size() < COMMIT_BATCH_SIZE) && !checkpointDue) {
+                    try {
+                        wait(COMMIT_INTERVAL_MILLIS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                checkpoint = checkpointDue;
+            }
+            if (checkpoint) {
+                try {
+                    checkpoint();
+                } catch (IOException e) {
+                    // The journal still holds every entry, so try again at the next checkpoint.
+                    synchronized (this) {
+                        entriesSinceCheckpoint = 0;
+                        checkpointDue = false;
+                    }
+                } catch (IllegalStateException e) {
+                    // Closed while waiting for the data store locks.
+                    return;
+                }
+            }
+            try {
+                commit();
+            } catch (IOException e) {
+                // Kept in commitFailure, so the next change or sync reports it.
+                return;
+            }
+        }
+    }
+
+    /**
+     * Write pending entries to the journal file and force them to disk.
+     *
+     * @throws IOException If the journal could not be written.
+     */
+    private void commit() throws IOException {
+        ByteArrayOutputStream batch;
+        long batchEntries;
+        long batchGeneration;
+        synchronized (this) {
+            if ((commitFailure != null) || (committedEntries == appendedEntries)) {
+                return;
+            }
+            batch = pendingBytes;
+            batchEntries = appendedEntries;
+            batchGeneration = generation;
+            pendingBytes = new ByteArrayOutputStream(COMMIT_BATCH_SIZE);
+        }
+
+        try {
+            synchronized (channelLock) {
+                // A checkpoint since the batch was taken already includes its entries.
+                if (batchGeneration != generation) {
+                    return;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                commitFailure = e;
+                notifyAll();
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            committedEntries = Math.max(committedEntries, batchEntries);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Empty the journal file and start a new generation.
+     *
+     * @param newGeneration Generation of the emptied journal.
+     * @throws IOException If the journal could not be written.
+     */
+    private void reset(long newGeneration) throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(newGeneration).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        generation = newGeneration;
+    }
+
+    /**
+     * Replay journal entries after the snapshot into the data stores. A partly written entry
+     * at the end of the journal, left by a crash, is discarded.
+     *
+     * @param snapshotGeneration Journal generation included in the snapshot, or -1 if there
+     *                           is no snapshot.
+     */
+    private void replay(long snapshotGeneration, StudentData studentData, StudentPointsData studentPointsData) throws IOException {
+        if (channel.size() == 0) {
+            reset(snapshotGeneration + 1);
+            return;
+        }
+
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        if ((channel.size() < HEADER_SIZE) || (in.readInt() != MAGIC) || (in.readInt() != VERSION)) {
+            throw new IOException("Not a journal file");
+        }
+        long journalGeneration = in.readLong();
+        if (journalGeneration <= snapshotGeneration) {
+            // A crash happened after a snapshot was written but before the journal was
+            // emptied. The snapshot already includes these entries.
+            reset(snapshotGeneration + 1);
+            return;
+        }
+        if (journalGeneration != snapshotGeneration + 1) {
+            throw new IOException(String.format("Journal generation %d does not follow snapshot generation %d",
+                    journalGeneration, snapshotGeneration));
+        }
+        generation = journalGeneration;
+
+        long position = HEADER_SIZE;
+        long size = channel.size();
+        byte[] entryData = new byte[256];
+        while (position + 4 <= size) {
+            int length = in.readInt();
+            if ((length <= 0) || (length > MAX_ENTRY_SIZE) || (position + 4 + length + 4 > size)) {
+                break;
+            }
+            if (length > entryData.length) {
+                entryData = new byte[Math.max(length, entryData.length * 2)];
+            }
+            in.readFully(entryData, 0, length);
+            int checksum = in.readInt();
+            crc.reset();
+            crc.update(entryData, 0, length);
+            if (checksum != (int) crc.getValue()) {
+                break;
+            }
+            apply(new DataInputStream(new ByteArrayInputStream(entryData, 0, length)), studentData, studentPointsData);
+            position += 4 + length + 4;
+            entriesSinceCheckpoint++;
+        }
+
+        // Drop a torn entry and continue appending after the last complete one.
+        if (position < size) {
+            channel.truncate(position);
+        }
+        channel.position(position);
+    }
+
+    private static void apply(DataInputStream in, StudentData studentData, StudentPointsData studentPointsData) throws IOException {
+        byte entryType = in.readByte();
+        switch (entryType) {
+            case ADD_STUDENT -> {
+                int studentId = in.readInt();
+                studentData.restoreStudent(new StudentRecord(studentId, in.readUTF(), in.readUTF(), in.readUTF()));
+            }
+            case UPDATE_EMAIL -> studentData.updateEmail(in.readInt(), in.readUTF());
+            case UPDATE_POINTS -> studentData.updatePoints(readPoints(0, in));
+            case SET_COURSE_NOTIFICATION_STATUS -> studentData.setCourseNotificationStatus(in.readInt(), in.readByte(), in.readByte());
+            case DELETE_STUDENT -> studentData.deleteStudent(in.readInt());
+            case ADD_STUDENT_POINTS -> studentPointsData.restoreStudentPoints(readPoints(in.readInt(), in));
+            case DELETE_STUDENT_POINTS -> studentPointsData.deleteStudentPoints(in.readInt());
+            default -> throw new IOException("Unexpected journal entry type: " + entryType);
+        }
+    }
+
+    private static StudentPointsRecord readPoints(int studentPointsId, DataInputStream in) throws IOException {
+        return new StudentPointsRecord(studentPointsId, in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+    }
+
+    /**
+     * Entry encoding buffer whose contents can be read without copying.
+     */
+    private static final class EntryBuffer extends ByteArrayOutputStream {
+        EntryBuffer() {
+            super(256);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
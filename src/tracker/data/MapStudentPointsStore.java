@@ -0,0 +1,61 @@
+package tracker.data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Student points store keeping one student points record object per record in a hash map.
+ */
+final class MapStudentPointsStore implements StudentPointsStore {
+    private final Map<Integer, StudentPointsRecord> studentPoints = new HashMap<>();
+
+    @Override
+    public void put(StudentPointsRecord studentPointsRecord) {
+        studentPoints.put(studentPointsRecord.studentPointsId(), studentPointsRecord);
+    }
+
+    @Override
+    public StudentPointsRecord get(int studentPointsId) {
+        return studentPoints.getOrDefault(studentPointsId, null);
+    }
+
+    @Override
+    public boolean read(int studentPointsId, StudentPointsRecord studentPointsRecord) {
+        StudentPointsRecord stored = studentPoints.getOrDefault(studentPointsId, null);
+        if (stored == null) {
+            return false;
+        }
+        studentPointsRecord.setStudentPointsId(stored.studentPointsId());
+        studentPointsRecord.setStudentId(stored.studentId());
+        studentPointsRecord.setCourse1Points(stored.course1Points());
+        studentPointsRecord.setCourse2Points(stored.course2Points());
+        studentPointsRecord.setCourse3Points(stored.course3Points());
+        studentPointsRecord.setCourse4Points(stored.course4Points());
+        return true;
+    }
+
+    @Override
+    public StudentPointsRecord remove(int studentPointsId) {
+        return studentPoints.remove(studentPointsId);
+    }
+
+    @Override
+    public int size() {
+        return studentPoints.size();
+    }
+
+    @Override
+    public void forEach(Consumer<StudentPointsRecord> action) {
+        studentPoints.values().forEach(action);
+    }
+
+    @Override
+    public void clear() {
+        studentPoints.clear();
+    }
+
+    @Override
+    public void close() {
+    }
+}
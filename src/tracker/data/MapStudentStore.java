@@ -0,0 +1,154 @@
+package tracker.data;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Student store keeping one student record object per student in a concurrent hash map.
+ * Records handed out by get are copies of the stored records.
+ */
+final class MapStudentStore implements StudentStore {
+    private final Map<Integer, StudentRecord> students = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(StudentRecord studentRecord) {
+        students.put(studentRecord.studentId(), studentRecord);
+    }
+
+    @Override
+    public StudentRecord get(int studentId) {
+        StudentRecord studentRecord = students.get(studentId);
+        return studentRecord == null ? null : new StudentRecord(studentRecord);
+    }
+
+    @Override
+    public int getCoursePoints(int studentId, int courseId) {
+        StudentRecord studentRecord = students.get(studentId);
+        if (studentRecord == null) {
+            return -1;
+        }
+        return switch (courseId) {
+            case 1 -> studentRecord.course1Points();
+            case 2 -> studentRecord.course2Points();
+            case 3 -> studentRecord.course3Points();
+            case 4 -> studentRecord.course4Points();
+            default -> throw new IllegalStateException("Unexpected value: " + courseId);
+        };
+    }
+
+    @Override
+    public int getCourseNotificationStatus(int studentId, int courseId) {
+        StudentRecord studentRecord = students.get(studentId);
+        if (studentRecord == null) {
+            return -1;
+        }
+        return switch (courseId) {
+            case 1 -> studentRecord.course1NotificationStatus();
+            case 2 -> studentRecord.course2NotificationStatus();
+            case 3 -> studentRecord.course3NotificationStatus();
+            case 4 -> studentRecord.course4NotificationStatus();
+            default -> throw new IllegalStateException("Unexpected value: " + courseId);
+        };
+    }
+
+    @Override
+    public StudentRecord remove(int studentId) {
+        return students.remove(studentId);
+    }
+
+    @Override
+    public int nextId(int fromId, int toId) {
+        // Student ids are handed out in order, so few ids in the range are missing.
+        for (int studentId = fromId; studentId < toId; studentId++) {
+            if (students.containsKey(studentId)) {
+                return studentId;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return students.size();
+    }
+
+    @Override
+    public void forEach(Consumer<StudentRecord> action) {
+        students.values().forEach(action);
+    }
+
+    @Override
+    public boolean addPoints(StudentPointsRecord studentPointsRecord) {
+        StudentRecord studentRecord = students.get(studentPointsRecord.studentId());
+        if (studentRecord == null) {
+            return false;
+        }
+        studentRecord.setCourse1Points(studentRecord.course1Points() + studentPointsRecord.course1Points());
+        studentRecord.setCourse2Points(studentRecord.course2Points() + studentPointsRecord.course2Points());
+        studentRecord.setCourse3Points(studentRecord.course3Points() + studentPointsRecord.course3Points());
+        studentRecord.setCourse4Points(studentRecord.course4Points() + studentPointsRecord.course4Points());
+        return true;
+    }
+
+    @Override
+    public int applyPoints(StudentPointsRecord studentPointsRecord, int[] completionPoints) {
+        StudentRecord studentRecord = students.get(studentPointsRecord.studentId());
+        if (studentRecord == null) {
+            return -1;
+        }
+        int completedCourses = 0;
+        studentRecord.setCourse1Points(studentRecord.course1Points() + studentPointsRecord.course1Points());
+        if ((studentRecord.course1Points() >= completionPoints[1]) && (studentRecord.course1NotificationStatus() == 0)) {
+            studentRecord.setCourse1NotificationStatus(1);
+            completedCourses |= 1 << 1;
+        }
+        studentRecord.setCourse2Points(studentRecord.course2Points() + studentPointsRecord.course2Points());
+        if ((studentRecord.course2Points() >= completionPoints[2]) && (studentRecord.course2NotificationStatus() == 0)) {
+            studentRecord.setCourse2NotificationStatus(1);
+            completedCourses |= 1 << 2;
+        }
+        studentRecord.setCourse3Points(studentRecord.course3Points() + studentPointsRecord.course3Points());
+        if ((studentRecord.course3Points() >= completionPoints[3]) && (studentRecord.course3NotificationStatus() == 0)) {
+            studentRecord.setCourse3NotificationStatus(1);
+            completedCourses |= 1 << 3;
+        }
+        studentRecord.setCourse4Points(studentRecord.course4Points() + studentPointsRecord.course4Points());
+        if ((studentRecord.course4Points() >= completionPoints[4]) && (studentRecord.course4NotificationStatus() == 0)) {
+            studentRecord.setCourse4NotificationStatus(1);
+            completedCourses |= 1 << 4;
+        }
+        return completedCourses;
+    }
+
+    @Override
+    public boolean setCourseNotificationStatus(int studentId, int courseId, int status) {
+        StudentRecord studentRecord = students.get(studentId);
+        if (studentRecord == null) {
+            return false;
+        }
+        switch (courseId) {
+            case 1 -> studentRecord.setCourse1NotificationStatus(status);
+            case 2 -> studentRecord.setCourse2NotificationStatus(status);
+            case 3 -> studentRecord.setCourse3NotificationStatus(status);
+            case 4 -> studentRecord.setCourse4NotificationStatus(status);
+            default -> throw new IllegalStateException("Unexpected value: " + courseId);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean setEmail(int studentId, String email) {
+        StudentRecord studentRecord = students.get(studentId);
+        if (studentRecord == null) {
+            return false;
+        }
+        studentRecord.setEmail(email);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        students.clear();
+    }
+}
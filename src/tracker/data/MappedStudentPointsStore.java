@@ -0,0 +1,159 @@
+package tracker.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Student points store keeping records in a memory mapped file, so the points history
+ * lives in the page cache rather than on the heap and can grow past the heap size.<br>
+ * Each record is six ints (student points id, student id, four course points) at slot
+ * student points id - 10000. A slot with student points id 0 is empty, which is also how
+ * deleted records are marked. The file is mapped in fixed size segments as it grows.<br>
+ * The file is working storage, not a persistent copy of the data: it is truncated when
+ * the store is opened and the data stores are rebuilt from the journal as usual.
+ */
+final class MappedStudentPointsStore implements StudentPointsStore {
+    static final String POINTS_FILE = "tracker.points";
+
+    private static final int FIRST_STUDENT_POINTS_ID = 10000;
+    private static final int RECORD_BYTES = 6 * Integer.BYTES;
+    private static final int SEGMENT_RECORDS = 1 << 20;
+    private static final long SEGMENT_BYTES = (long) SEGMENT_RECORDS * RECORD_BYTES;
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private int size = 0;
+    // Highest slot written + 1.
+    private int limit = 0;
+
+    /**
+     * Open store, discarding any records left in the file.
+     *
+     * @param file Points file.
+     * @throws IOException If the file could not be opened.
+     */
+    MappedStudentPointsStore(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    public void put(StudentPointsRecord studentPointsRecord) {
+        int slot = studentPointsRecord.studentPointsId() - FIRST_STUDENT_POINTS_ID;
+        if (slot < 0) {
+            throw new IllegalArgumentException("Student points id below " + FIRST_STUDENT_POINTS_ID + ": "
+                    + studentPointsRecord.studentPointsId());
+        }
+        MappedByteBuffer segment = segment(slot);
+        int offset = offset(slot);
+        if (segment.getInt(offset) == 0) {
+            size++;
+        }
+        segment.putInt(offset, studentPointsRecord.studentPointsId());
+        segment.putInt(offset + 4, studentPointsRecord.studentId());
+        segment.putInt(offset + 8, studentPointsRecord.course1Points());
+        segment.putInt(offset + 12, studentPointsRecord.course2Points());
+        segment.putInt(offset + 16, studentPointsRecord.course3Points());
+        segment.putInt(offset + 20, studentPointsRecord.course4Points());
+        limit = Math.max(limit, slot + 1);
+    }
+
+    @Override
+    public StudentPointsRecord get(int studentPointsId) {
+        var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0, 0);
+        return read(studentPointsId, studentPointsRecord) ? studentPointsRecord : null;
+    }
+
+    @Override
+    public boolean read(int studentPointsId, StudentPointsRecord studentPointsRecord) {
+        int slot = studentPointsId - FIRST_STUDENT_POINTS_ID;
+        if ((slot < 0) || (slot >= limit)) {
+            return false;
+        }
+        return readSlot(slot, studentPointsRecord);
+    }
+
+    @Override
+    public StudentPointsRecord remove(int studentPointsId) {
+        StudentPointsRecord studentPointsRecord = get(studentPointsId);
+        if (studentPointsRecord != null) {
+            int slot = studentPointsId - FIRST_STUDENT_POINTS_ID;
+            segments.get(slot / SEGMENT_RECORDS).putInt(offset(slot), 0);
+            size--;
+        }
+        return studentPointsRecord;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<StudentPointsRecord> action) {
+        var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0, 0);
+        for (int slot = 0; slot < limit; slot++) {
+            if (readSlot(slot, studentPointsRecord)) {
+                action.accept(studentPointsRecord);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        // Mapped segments cannot be unmapped, so empty the slots rather than truncating.
+        for (int slot = 0; slot < limit; slot++) {
+            segments.get(slot / SEGMENT_RECORDS).putInt(offset(slot), 0);
+        }
+        size = 0;
+        limit = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        segments.clear();
+        channel.close();
+    }
+
+    private boolean readSlot(int slot, StudentPointsRecord studentPointsRecord) {
+        MappedByteBuffer segment = segments.get(slot / SEGMENT_RECORDS);
+        int offset = offset(slot);
+        int studentPointsId = segment.getInt(offset);
+        if (studentPointsId == 0) {
+            return false;
+        }
+        studentPointsRecord.setStudentPointsId(studentPointsId);
+        studentPointsRecord.setStudentId(segment.getInt(offset + 4));
+        studentPointsRecord.setCourse1Points(segment.getInt(offset + 8));
+        studentPointsRecord.setCourse2Points(segment.getInt(offset + 12));
+        studentPointsRecord.setCourse3Points(segment.getInt(offset + 16));
+        studentPointsRecord.setCourse4Points(segment.getInt(offset + 20));
+        return true;
+    }
+
+    /**
+     * Get segment holding a slot, mapping segments up to it if needed.
+     */
+    private MappedByteBuffer segment(int slot) {
+        int index = slot / SEGMENT_RECORDS;
+        try {
+            while (segments.size() <= index) {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, segments.size() * SEGMENT_BYTES, SEGMENT_BYTES));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return segments.get(index);
+    }
+
+    private static int offset(int slot) {
+        return (slot % SEGMENT_RECORDS) * RECORD_BYTES;
+    }
+}
@@ -0,0 +1,265 @@
+package tracker.data;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact binary snapshot of the data stores.<br>
+ * Layout: header (magic, version, journal generation, next student id, next student points
+ * id), student count and students, student points count and student points, then a CRC32
+ * of everything before it. The journal generation tells which journal entries are already
+ * included in the snapshot.
+ */
+final class Snapshot {
+    private static final int MAGIC = 0x4C505453; // "LPTS"
+    private static final int VERSION = 1;
+    private static final long SEGMENT_BYTES = 1L << 30;
+
+    private Snapshot() {
+    }
+
+    /**
+     * Write snapshot of the data stores. The snapshot is written to a temporary file which
+     * replaces the existing snapshot once it is on disk, so a crash leaves either the old
+     * or the new snapshot.
+     *
+     * @param path              Snapshot file.
+     * @param journalGeneration Generation of the journal the snapshot includes.
+     * @param studentData       Student data store to write.
+     * @param studentPointsData Student points data store to write.
+     * @throws IOException If the snapshot could not be written.
+     */
+    static void write(Path path, long journalGeneration, StudentData studentData, StudentPointsData studentPointsData) throws IOException {
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporaryPath.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(journalGeneration);
+            out.writeInt(studentData.getNextStudentId());
+            out.writeInt(studentPointsData.getNextStudentPointsId());
+
+            out.writeInt(studentData.getNumberOfStudents());
+            try {
+                studentData.forEachStudent(studentRecord -> {
+                    try {
+                        writeStudent(out, studentRecord);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            out.writeInt(studentPointsData.getNumberOfStudentPoints());
+            try {
+                studentPointsData.forEachStudentPoints(studentPointsRecord -> {
+                    try {
+                        writeStudentPoints(out, studentPointsRecord);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(path.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Force a directory to disk, so a rename in it survives a crash.
+     */
+    private static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Directories cannot be opened for syncing on Windows.
+        }
+    }
+
+    /**
+     * Read snapshot into empty data stores. The snapshot file is memory mapped in segments
+     * rather than read through a stream, so it can be larger than one mapping.
+     *
+     * @param path              Snapshot file.
+     * @param studentData       Student data store to load.
+     * @param studentPointsData Student points data store to load.
+     * @return Generation of the journal the snapshot includes.
+     * @throws IOException If the snapshot could not be read or is damaged.
+     */
+    static long read(Path path, StudentData studentData, StudentPointsData studentPointsData) throws IOException {
+        return read(path, studentData, studentPointsData, SEGMENT_BYTES);
+    }
+
+    /**
+     * Read snapshot into empty data stores, mapping segments of the given size.
+     */
+    static long read(Path path, StudentData studentData, StudentPointsData studentPointsData, long segmentBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            // Check the whole snapshot before loading anything.
+            if (size < 32) {
+                throw new IOException("Snapshot is damaged");
+            }
+            CRC32 crc = new CRC32();
+            for (long position = 0; position < size - 4; position += segmentBytes) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentBytes, size - 4 - position)));
+            }
+            ByteBuffer storedCrc = ByteBuffer.allocate(4);
+            while (storedCrc.hasRemaining()) {
+                channel.read(storedCrc, size - 4 + storedCrc.position());
+            }
+            if (storedCrc.getInt(0) != (int) crc.getValue()) {
+                throw new IOException("Snapshot is damaged");
+            }
+
+            var in = new SegmentReader(channel, size - 4, segmentBytes);
+            if ((in.getInt() != MAGIC) || (in.getInt() != VERSION)) {
+                throw new IOException("Not a snapshot file");
+            }
+
+            long journalGeneration = in.getLong();
+            int nextStudentId = in.getInt();
+            int nextStudentPointsId = in.getInt();
+
+            int numberOfStudents = in.getInt();
+            for (int i = 0; i < numberOfStudents; i++) {
+                var studentRecord = new StudentRecord(in.getInt(), null, null, null);
+                studentRecord.setCourse1Points(in.getInt());
+                studentRecord.setCourse2Points(in.getInt());
+                studentRecord.setCourse3Points(in.getInt());
+                studentRecord.setCourse4Points(in.getInt());
+                studentRecord.setCourse1NotificationStatus(in.get());
+                studentRecord.setCourse2NotificationStatus(in.get());
+                studentRecord.setCourse3NotificationStatus(in.get());
+                studentRecord.setCourse4NotificationStatus(in.get());
+                studentRecord.setFirstName(in.getString());
+                studentRecord.setLastName(in.getString());
+                studentRecord.setEmail(in.getString());
+                studentData.restoreStudent(studentRecord);
+            }
+
+            int numberOfStudentPoints = in.getInt();
+            for (int i = 0; i < numberOfStudentPoints; i++) {
+                studentPointsData.restoreStudentPoints(new StudentPointsRecord(
+                        in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt()));
+            }
+
+            studentData.setNextStudentId(nextStudentId);
+            studentPointsData.setNextStudentPointsId(nextStudentPointsId);
+            return journalGeneration;
+        }
+    }
+
+    private static void writeStudent(DataOutputStream out, StudentRecord studentRecord) throws IOException {
+        out.writeInt(studentRecord.studentId());
+        out.writeInt(studentRecord.course1Points());
+        out.writeInt(studentRecord.course2Points());
+        out.writeInt(studentRecord.course3Points());
+        out.writeInt(studentRecord.course4Points());
+        out.writeByte(studentRecord.course1NotificationStatus());
+        out.writeByte(studentRecord.course2NotificationStatus());
+        out.writeByte(studentRecord.course3NotificationStatus());
+        out.writeByte(studentRecord.course4NotificationStatus());
+        writeString(out, studentRecord.firstName());
+        writeString(out, studentRecord.lastName());
+        writeString(out, studentRecord.email());
+    }
+
+    private static void writeStudentPoints(DataOutputStream out, StudentPointsRecord studentPointsRecord) throws IOException {
+        out.writeInt(studentPointsRecord.studentPointsId());
+        out.writeInt(studentPointsRecord.studentId());
+        out.writeInt(studentPointsRecord.course1Points());
+        out.writeInt(studentPointsRecord.course2Points());
+        out.writeInt(studentPointsRecord.course3Points());
+        out.writeInt(studentPointsRecord.course4Points());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a snapshot file through memory mapped segments, mapping the next segment when
+     * the current one runs out. Values may cross segment boundaries.
+     */
+    private static final class SegmentReader {
+        private final FileChannel channel;
+        private final long size;
+        private final long segmentBytes;
+        private long segmentStart = 0;
+        private MappedByteBuffer segment;
+        private byte[] stringBytes = new byte[64];
+
+        private SegmentReader(FileChannel channel, long size, long segmentBytes) throws IOException {
+            this.channel = channel;
+            this.size = size;
+            this.segmentBytes = segmentBytes;
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(segmentBytes, size));
+        }
+
+        private byte get() throws IOException {
+            if (!segment.hasRemaining()) {
+                nextSegment();
+            }
+            return segment.get();
+        }
+
+        private int getInt() throws IOException {
+            if (segment.remaining() >= Integer.BYTES) {
+                return segment.getInt();
+            }
+            return ((get() & 0xFF) << 24) | ((get() & 0xFF) << 16) | ((get() & 0xFF) << 8) | (get() & 0xFF);
+        }
+
+        private long getLong() throws IOException {
+            return ((long) getInt() << 32) | (getInt() & 0xFFFFFFFFL);
+        }
+
+        private String getString() throws IOException {
+            int length = getInt();
+            if (length > stringBytes.length) {
+                stringBytes = new byte[Math.max(length, stringBytes.length * 2)];
+            }
+            for (int offset = 0; offset < length; ) {
+                if (!segment.hasRemaining()) {
+                    nextSegment();
+                }
+                int count = Math.min(length - offset, segment.remaining());
+                segment.get(stringBytes, offset, count);
+                offset += count;
+            }
+            return new String(stringBytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private void nextSegment() throws IOException {
+            segmentStart += segment.capacity();
+            if (segmentStart >= size) {
+                throw new IOException("Snapshot is damaged");
+            }
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, Math.min(segmentBytes, size - segmentStart));
+        }
+    }
+}
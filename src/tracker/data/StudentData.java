@@ -1,34 +1,185 @@
 package tracker.data;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
+/**
+ * Student data store. Students are kept in one of two storage backends, see
+ * {@link Storage}. Student records handed out are copies, so changes must be made through
+ * this class rather than on the records.<br>
+ * The store is safe to use from several threads. Each student is read and changed while
+ * holding one of a set of striped locks chosen by student id, so changes to one student,
+ * including recording them in the journal, happen one at a time while different students
+ * can be changed at once.
+ */
 public final class StudentData {
     private static final StudentData instance = new StudentData();
 
     private StudentData() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
     }
 
     public static StudentData getInstance() {
         return instance;
     }
 
-    private int nextStudentId = 10000;
-    private final Map<Integer, StudentRecord> students = new HashMap<>();
+    /**
+     * Storage backends.
+     */
+    public enum Storage {
+        // One student record object per student in a hash map.
+        MAP,
+        // Course points and notification statuses in primitive array columns.
+        COLUMNAR
+    }
+
+    private static final int FIRST_STUDENT_ID = 10000;
+    private static final int LOCK_STRIPES = 64;
+    private static final int STATUS_PENDING = 1;
+
+    private final AtomicInteger nextStudentId = new AtomicInteger(FIRST_STUDENT_ID);
+    private volatile StudentStore students = new MapStudentStore();
+    // Folded (lower case) email, emails and ids of students using that email in the order
+    // they were added.
+    private final Map<String, EmailEntry> studentIdsByEmail = new ConcurrentHashMap<>();
+    // Courses with notification status 1, packed as student id << 3 | course id so they
+    // sort by student id, then course id.
+    private final Set<Long> pendingNotifications = new ConcurrentSkipListSet<>();
+    // Each student is changed while holding the lock for its id, lock stripe = id % stripes.
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // Number of changes made. Changes to different students are counted at once, so an
+    // adder rather than one contended counter.
+    private final LongAdder version = new LongAdder();
+
+    private volatile Journal journal = null;
+
+    /**
+     * Action called with a student id and course id.
+     */
+    @FunctionalInterface
+    public interface CourseAction {
+        /**
+         * @param studentId Student id.
+         * @param courseId  Course id.
+         */
+        void accept(int studentId, int courseId);
+    }
+
+    /**
+     * Set journal to record changes to. Set to null to stop recording changes.
+     *
+     * @param journal Journal to record changes to.
+     */
+    void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Wait until the changes made so far are on disk. Does nothing when changes are not
+     * recorded in a journal.
+     *
+     * @throws UncheckedIOException If the journal could not be written.
+     */
+    public void sync() {
+        Journal journal = this.journal;
+        if (journal != null) {
+            try {
+                journal.sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write journal", e);
+            }
+        }
+    }
 
     /**
-     * Add student.
+     * Set storage backend. The backend can only be changed while there are no students.
+     *
+     * @param storage Storage backend to use.
+     */
+    public void setStorage(Storage storage) {
+        lockAll();
+        try {
+            if (students.size() > 0) {
+                throw new IllegalStateException("Storage can only be changed when there are no students");
+            }
+            students = switch (storage) {
+                case MAP -> new MapStudentStore();
+                case COLUMNAR -> new ColumnarStudentStore();
+            };
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Add student unless another student already uses the same email. Checking the email
+     * and reserving it for the new student id is one step on the email index, so students
+     * added from several threads at once get distinct ids and distinct emails.
      *
      * @param studentRecord Student record to add.
-     * @return Student id of student record.
+     * @return Student id of student record, or -1 if the email is already taken.
      */
-    public synchronized int addStudent(StudentRecord studentRecord) {
-        int studentId = nextStudentId;
+    public int addStudent(StudentRecord studentRecord) {
+        String email = studentRecord.email();
+        int[] studentIds = {-1};
+        studentIdsByEmail.compute(foldEmail(email), (key, emailEntry) -> {
+            for (EmailEntry entry = emailEntry; entry != null; entry = entry.next) {
+                if (entry.email.equals(email)) {
+                    return emailEntry;
+                }
+            }
+            studentIds[0] = nextStudentId.getAndIncrement();
+            return EmailEntry.append(emailEntry, email, studentIds[0]);
+        });
+        int studentId = studentIds[0];
+        if (studentId == -1) {
+            return -1;
+        }
+
         studentRecord.setStudentId(studentId);
-        students.put(studentId, studentRecord);
-        nextStudentId++;
+        ReentrantLock lock = lock(studentId);
+        lock.lock();
+        try {
+            students.put(studentRecord);
+            indexPendingNotifications(studentRecord);
+            version.increment();
+            if (journal != null) journal.logAddStudent(studentRecord);
+        } finally {
+            lock.unlock();
+        }
         return studentId;
     }
 
+    /**
+     * Restore student with its existing student id.
+     *
+     * @param studentRecord Student record to restore.
+     */
+    void restoreStudent(StudentRecord studentRecord) {
+        int studentId = studentRecord.studentId();
+        ReentrantLock lock = lock(studentId);
+        lock.lock();
+        try {
+            students.put(studentRecord);
+            indexEmail(studentRecord.email(), studentId);
+            indexPendingNotifications(studentRecord);
+            version.increment();
+        } finally {
+            lock.unlock();
+        }
+        nextStudentId.accumulateAndGet(studentId + 1, Math::max);
+    }
+
     /**
      * Get number of students.
      *
@@ -39,14 +190,53 @@ public final class StudentData {
     }
 
     /**
-     * Get list of students.
+     * Get list of students. Changes are held off while the list is built, so it shows
+     * every student at one point in time.
      *
      * @return List of student records.
      */
     public List<StudentRecord> getStudents() {
-        List<StudentRecord> studentRecords = new ArrayList<>();
-        students.forEach((key, value) -> studentRecords.add(value));
-        return studentRecords;
+        lockAll();
+        try {
+            List<StudentRecord> studentRecords = new ArrayList<>(students.size());
+            students.forEach(studentRecord -> studentRecords.add(new StudentRecord(studentRecord)));
+            return studentRecords;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Call action for each student id in id order. Ids are found one at a time without
+     * copying the students, so this needs no extra memory however many students there are.
+     * Students added or deleted while the iteration is running may or may not be visited.
+     *
+     * @param action Action to call with each student id.
+     */
+    public void forEachId(IntConsumer action) {
+        forEachId(FIRST_STUDENT_ID, Integer.MAX_VALUE, action);
+    }
+
+    /**
+     * Call action for student ids in id order, starting from an id and stopping after a
+     * number of students. See {@link #forEachId(IntConsumer)}.
+     *
+     * @param fromId Student id to start from.
+     * @param limit  Maximum number of students to visit.
+     * @param action Action to call with each student id.
+     * @return Student id to continue from, or -1 if there are no more students.
+     */
+    public int forEachId(int fromId, int limit, IntConsumer action) {
+        int studentId = Math.max(fromId, FIRST_STUDENT_ID);
+        for (int count = 0; count < limit; count++) {
+            studentId = students.nextId(studentId, nextStudentId.get());
+            if (studentId < 0) {
+                return -1;
+            }
+            action.accept(studentId);
+            studentId++;
+        }
+        return (students.nextId(studentId, nextStudentId.get()) < 0) ? -1 : studentId;
     }
 
     /**
@@ -56,8 +246,7 @@ public final class StudentData {
      * @return Optional student record. The Optional is empty if the student was not found.
      */
     public Optional<StudentRecord> getStudent(int studentId) {
-        StudentRecord studentRecord = students.getOrDefault(studentId, null);
-        return studentRecord == null ? Optional.empty() : Optional.of(studentRecord);
+        return Optional.ofNullable(get(studentId));
     }
 
     /**
@@ -67,13 +256,68 @@ public final class StudentData {
      * @return Optional student record. The Optional is empty if the student was not found.
      */
     public Optional<StudentRecord> getStudentByEmail(String email) {
-        StudentRecord studentRecord = null;
-        for (Map.Entry<Integer, StudentRecord> entry : students.entrySet()) {
-            if (entry.getValue().email().equals(email)) {
-                studentRecord = entry.getValue();
+        for (EmailEntry entry = studentIdsByEmail.get(foldEmail(email)); entry != null; entry = entry.next) {
+            if (entry.email.equals(email)) {
+                // The record is missing while addStudent is between reserving the email and
+                // storing the student.
+                return Optional.ofNullable(get(entry.studentId));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Get student by email ignoring case.
+     *
+     * @param email Email to find.
+     * @return Optional student record. The Optional is empty if the student was not found.
+     */
+    public Optional<StudentRecord> getStudentByEmailIgnoreCase(String email) {
+        EmailEntry entry = studentIdsByEmail.get(foldEmail(email));
+        return entry == null ? Optional.empty() : Optional.ofNullable(get(entry.studentId));
+    }
+
+    /**
+     * Update student email.<br>
+     * Emails must be changed through this method rather than on the student record so the
+     * email index stays current.
+     *
+     * @param studentId Student id to update.
+     * @param email     New email.
+     */
+    public void updateEmail(int studentId, String email) {
+        ReentrantLock lock = lock(studentId);
+        lock.lock();
+        try {
+            StudentRecord studentRecord = students.get(studentId);
+            if (studentRecord != null) {
+                unindexEmail(studentRecord.email(), studentId);
+                students.setEmail(studentId, email);
+                indexEmail(email, studentId);
+                version.increment();
+                if (journal != null) journal.logUpdateEmail(studentId, email);
             }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get student course points for studentId and courseId. Unlike
+     * {@link #getStudent(int)} the student record is not copied.
+     *
+     * @param studentId Student id to find.
+     * @param courseId  Course id to find.
+     * @return Course points, or -1 if the student was not found.
+     */
+    public int getCoursePoints(int studentId, int courseId) {
+        ReentrantLock lock = lock(studentId);
+        lock.lock();
+        try {
+            return students.getCoursePoints(studentId, courseId);
+        } finally {
+            lock.unlock();
         }
-        return studentRecord == null ? Optional.empty() : Optional.of(studentRecord);
     }
 
     /**
@@ -89,45 +333,80 @@ public final class StudentData {
      * if the student was not found.
      */
     public Optional<Integer> getCourseNotificationStatus(int studentId, int courseId) {
-        StudentRecord studentRecord = students.getOrDefault(studentId, null);
-        if (studentRecord == null) {
-            return Optional.empty();
-        } else {
-            switch (courseId) {
-                case 1 -> {
-                    return Optional.of(studentRecord.course1NotificationStatus());
-                }
-                case 2 -> {
-                    return Optional.of(studentRecord.course2NotificationStatus());
-                }
-                case 3 -> {
-                    return Optional.of(studentRecord.course3NotificationStatus());
-                }
-                case 4 -> {
-                    return Optional.of(studentRecord.course4NotificationStatus());
-                }
-                default -> throw new IllegalStateException("Unexpected value: " + courseId);
-            }
+        ReentrantLock lock = lock(studentId);
+        lock.lock();
+        try {
+            int status = students.getCourseNotificationStatus(studentId, courseId);
+            return status < 0 ? Optional.empty() : Optional.of(status);
+        } finally {
+            lock.unlock();
         }
     }
 
     /**
-     * Update student course points.
+     * Update student course points. The points of all courses are added as one change.
      *
      * @param studentPointsRecord Student points record with values to add.
      * @return Optional student record with updated points. The Optional is empty
      * if the student was not found.
      */
     public Optional<StudentRecord> updatePoints(StudentPointsRecord studentPointsRecord) {
-        StudentRecord studentRecord = students.getOrDefault(studentPointsRecord.studentId(), null);
-        if (studentRecord != null) {
-            studentRecord.setCourse1Points(studentRecord.course1Points() + studentPointsRecord.course1Points());
-            studentRecord.setCourse2Points(studentRecord.course2Points() + studentPointsRecord.course2Points());
-            studentRecord.setCourse3Points(studentRecord.course3Points() + studentPointsRecord.course3Points());
-            studentRecord.setCourse4Points(studentRecord.course4Points() + studentPointsRecord.course4Points());
+        int studentId = studentPointsRecord.studentId();
+        ReentrantLock lock = lock(studentId);
+        lock.lock();
+        try {
+            if (!students.addPoints(studentPointsRecord)) {
+                return Optional.empty();
+            }
+            version.increment();
+            if (journal != null) journal.logUpdatePoints(studentPointsRecord);
+            return Optional.of(students.get(studentId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apply a student points submission: add the points to the student's courses, flag the
+     * courses the points complete for notification and record the student points. Everything
+     * is done as one change with a single lookup of the student, so concurrent submissions
+     * for the same student cannot flag a course twice or interleave their history.
+     *
+     * @param studentPointsRecord Student points record with values to add.
+     * @param completionPoints    Points needed to complete each course, indexed by course id.
+     * @param studentPointsData   Student points data store to record the student points in.
+     * @return Bit mask of the courses completed by the points, bit n for course n, or -1 if
+     * the student was not found.
+     */
+    public int applyPoints(StudentPointsRecord studentPointsRecord, int[] completionPoints, StudentPointsData studentPointsData) {
+        int studentId = studentPointsRecord.studentId();
+        ReentrantLock lock = lock(studentId);
+        lock.lock();
+        try {
+            int completedCourses = students.applyPoints(studentPointsRecord, completionPoints);
+            if (completedCourses < 0) {
+                return -1;
+            }
+            for (int courseId = 1; courseId < 5; courseId++) {
+                if ((completedCourses & (1 << courseId)) != 0) {
+                    pendingNotifications.add(pendingKey(studentId, courseId));
+                }
+            }
+            version.increment();
+            if (journal != null) {
+                journal.logUpdatePoints(studentPointsRecord);
+                for (int courseId = 1; courseId < 5; courseId++) {
+                    if ((completedCourses & (1 << courseId)) != 0) {
+                        journal.logSetCourseNotificationStatus(studentId, courseId, 1);
+                    }
+                }
+            }
+            // Lock order is student stripe, then student points store, then journal.
+            studentPointsData.addStudentPoints(studentPointsRecord);
+            return completedCourses;
+        } finally {
+            lock.unlock();
         }
-        students.put(studentPointsRecord.studentId(), studentRecord);
-        return studentRecord == null ? Optional.empty() : Optional.of(studentRecord);
     }
 
     /**
@@ -137,25 +416,232 @@ public final class StudentData {
      * @param courseId  Course id to update.
      */
     public void setCourseNotificationStatus(int studentId, int courseId, int status) {
-        StudentRecord studentRecord = students.getOrDefault(studentId, null);
-        if (studentRecord != null) {
-            switch (courseId) {
-                case 1 -> studentRecord.setCourse1NotificationStatus(status);
-                case 2 -> studentRecord.setCourse2NotificationStatus(status);
-                case 3 -> studentRecord.setCourse3NotificationStatus(status);
-                case 4 -> studentRecord.setCourse4NotificationStatus(status);
-                default -> throw new IllegalStateException("Unexpected value: " + courseId);
+        ReentrantLock lock = lock(studentId);
+        lock.lock();
+        try {
+            if (students.setCourseNotificationStatus(studentId, courseId, status)) {
+                indexPendingNotification(studentId, courseId, status);
+                version.increment();
+                if (journal != null) journal.logSetCourseNotificationStatus(studentId, courseId, status);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Set student course notification status for studentId and courseId if it currently
+     * has the expected value. Checking and setting is one change, so when several threads
+     * make the same change only one of them succeeds.
+     *
+     * @param studentId      Student id to update.
+     * @param courseId       Course id to update.
+     * @param expectedStatus Status the course must have.
+     * @param status         New status.
+     * @return true if the status was set.
+     */
+    public boolean compareAndSetCourseNotificationStatus(int studentId, int courseId, int expectedStatus, int status) {
+        ReentrantLock lock = lock(studentId);
+        lock.lock();
+        try {
+            if (students.getCourseNotificationStatus(studentId, courseId) != expectedStatus) {
+                return false;
             }
-            students.put(studentId, studentRecord);
+            students.setCourseNotificationStatus(studentId, courseId, status);
+            indexPendingNotification(studentId, courseId, status);
+            version.increment();
+            if (journal != null) journal.logSetCourseNotificationStatus(studentId, courseId, status);
+            return true;
+        } finally {
+            lock.unlock();
         }
     }
 
+    /**
+     * Call action for each course with notification status 1, in student id order, then
+     * course id order. Only pending courses are visited, so the cost does not grow with the
+     * number of students. The action may change notification statuses; courses flagged or
+     * cleared while the iteration is running may or may not be visited.
+     *
+     * @param action Action to call with the student id and course id.
+     */
+    public void forEachPendingNotification(CourseAction action) {
+        for (long key : pendingNotifications) {
+            action.accept((int) (key >>> 3), (int) (key & 7));
+        }
+    }
+
+    /**
+     * Get number of courses with notification status 1.
+     *
+     * @return Number of pending notifications.
+     */
+    public int getNumberOfPendingNotifications() {
+        return pendingNotifications.size();
+    }
+
     /**
      * Delete student by id.
      *
      * @param studentId Student id to delete.
      */
     public void deleteStudent(int studentId) {
-        students.remove(studentId);
+        ReentrantLock lock = lock(studentId);
+        lock.lock();
+        try {
+            StudentRecord studentRecord = students.remove(studentId);
+            if (studentRecord != null) {
+                unindexEmail(studentRecord.email(), studentId);
+                for (int courseId = 1; courseId < 5; courseId++) {
+                    pendingNotifications.remove(pendingKey(studentId, courseId));
+                }
+                version.increment();
+                if (journal != null) journal.logDeleteStudent(studentId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get version of the store. The version goes up with every change to a student, after
+     * the change is made, so anything worked out from the store is still current while the
+     * version read before working it out has not changed.
+     *
+     * @return Version of the store.
+     */
+    public long getVersion() {
+        return version.sum();
+    }
+
+    /**
+     * Call action for each student. The caller must hold all locks, see {@link #lockAll()}.
+     * The record passed to the action may be reused, so it must be copied to be kept.
+     *
+     * @param action Action to call.
+     */
+    void forEachStudent(Consumer<StudentRecord> action) {
+        students.forEach(action);
+    }
+
+    int getNextStudentId() {
+        return nextStudentId.get();
+    }
+
+    void setNextStudentId(int nextStudentId) {
+        this.nextStudentId.set(nextStudentId);
+    }
+
+    /**
+     * Delete all students.
+     */
+    void clear() {
+        lockAll();
+        try {
+            students.clear();
+            studentIdsByEmail.clear();
+            pendingNotifications.clear();
+            nextStudentId.set(FIRST_STUDENT_ID);
+            version.increment();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Take every lock, holding off all changes until {@link #unlockAll()}.
+     */
+    void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    void unlockAll() {
+        for (int i = LOCK_STRIPES - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    private ReentrantLock lock(int studentId) {
+        return locks[Math.floorMod(studentId, LOCK_STRIPES)];
+    }
+
+    /**
+     * Get a copy of a student.
+     *
+     * @return Student record, or null if the student was not found.
+     */
+    private StudentRecord get(int studentId) {
+        ReentrantLock lock = lock(studentId);
+        lock.lock();
+        try {
+            return students.get(studentId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void indexPendingNotifications(StudentRecord studentRecord) {
+        int studentId = studentRecord.studentId();
+        indexPendingNotification(studentId, 1, studentRecord.course1NotificationStatus());
+        indexPendingNotification(studentId, 2, studentRecord.course2NotificationStatus());
+        indexPendingNotification(studentId, 3, studentRecord.course3NotificationStatus());
+        indexPendingNotification(studentId, 4, studentRecord.course4NotificationStatus());
+    }
+
+    private void indexPendingNotification(int studentId, int courseId, int status) {
+        if (status == STATUS_PENDING) {
+            pendingNotifications.add(pendingKey(studentId, courseId));
+        } else {
+            pendingNotifications.remove(pendingKey(studentId, courseId));
+        }
+    }
+
+    private static long pendingKey(int studentId, int courseId) {
+        return ((long) studentId << 3) | courseId;
+    }
+
+    private void indexEmail(String email, int studentId) {
+        studentIdsByEmail.compute(foldEmail(email), (key, emailEntry) -> EmailEntry.append(emailEntry, email, studentId));
+    }
+
+    private void unindexEmail(String email, int studentId) {
+        studentIdsByEmail.computeIfPresent(foldEmail(email), (key, emailEntry) -> EmailEntry.remove(emailEntry, studentId));
+    }
+
+    private static String foldEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Email index entry. Entries are never changed, so they can be read without locking
+     * while the index is updated.
+     */
+    private static final class EmailEntry {
+        private final String email;
+        private final int studentId;
+        private final EmailEntry next;
+
+        private EmailEntry(String email, int studentId, EmailEntry next) {
+            this.email = email;
+            this.studentId = studentId;
+            this.next = next;
+        }
+
+        private static EmailEntry append(EmailEntry entry, String email, int studentId) {
+            return entry == null
+                    ? new EmailEntry(email, studentId, null)
+                    : new EmailEntry(entry.email, entry.studentId, append(entry.next, email, studentId));
+        }
+
+        private static EmailEntry remove(EmailEntry entry, int studentId) {
+            if (entry == null) {
+                return null;
+            }
+            return entry.studentId == studentId
+                    ? entry.next
+                    : new EmailEntry(entry.email, entry.studentId, remove(entry.next, studentId));
+        }
     }
 }
@@ -1,10 +1,23 @@
 package tracker.data;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
+/**
+ * Student points data store. Student points records are kept in one of two storage
+ * backends, see {@link Storage}. The course indexes and statistics aggregates are always
+ * kept on the heap.<br>
+ * The statistics aggregates are updated as records are added and deleted, except while the
+ * store is restored, when they are rebuilt once from all records afterwards. Large stores
+ * are rebuilt in parallel on a fork-join pool, see {@link #rebuildAggregates()}.<br>
+ * The store is safe to use from several threads. Every operation holds the store's lock,
+ * which is also what the journal takes to write a snapshot.
+ */
 public final class StudentPointsData {
     private static final StudentPointsData instance = new StudentPointsData();
 
@@ -15,8 +28,74 @@ public final class StudentPointsData {
         return instance;
     }
 
+    /**
+     * Storage backends.
+     */
+    public enum Storage {
+        // One student points record object per record in a hash map.
+        HEAP,
+        // Fixed width records in a memory mapped file.
+        MAPPED
+    }
+
+    // Number of student points records from which aggregates are rebuilt in parallel.
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    // Number of fork-join tasks per pool thread a parallel rebuild is split into.
+    private static final int TASKS_PER_THREAD = 4;
+
     private int nextStudentPointsId = 10000;
-    private final Map<Integer, StudentPointsRecord> studentPoints = new HashMap<>();
+    private StudentPointsStore studentPoints = new MapStudentPointsStore();
+    // Ids of student points records with points for each course, indexed by course id.
+    private final IdList[] courseStudentPointsIds = {null, new IdList(), new IdList(), new IdList(), new IdList()};
+
+    // Course statistics aggregates, indexed by course id.
+    // Student id, Number of student points records with points for each course. Only
+    // needed to tell when a delete ends an enrollment, so after a rebuild it is null until
+    // the next delete.
+    private Map<Integer, int[]> studentCourseActivity = new HashMap<>();
+    // Ids of students with points for each course. Student ids are dense, so a bit per id
+    // takes far less than a set of boxed ids, and enrollment is a population count.
+    private final BitSet[] courseEnrolledStudents = {null, new BitSet(), new BitSet(), new BitSet(), new BitSet()};
+    private final int[] courseActivity = new int[5];
+    private final long[] courseGradeSums = new long[5];
+    // false while the aggregates do not include every record, after records are restored.
+    private boolean aggregatesCurrent = true;
+    // Number of changes made.
+    private long version = 0;
+
+    private volatile Journal journal = null;
+
+    /**
+     * Set journal to record changes to. Set to null to stop recording changes.
+     *
+     * @param journal Journal to record changes to.
+     */
+    void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Set storage backend. The backend can only be changed while there are no student
+     * points.
+     *
+     * @param storage   Storage backend to use.
+     * @param directory Directory for the points file of the mapped backend, or null to use
+     *                  a temporary file. Not used by the heap backend.
+     * @throws IOException If the points file could not be opened.
+     */
+    public synchronized void setStorage(Storage storage, Path directory) throws IOException {
+        if (studentPoints.size() > 0) {
+            throw new IllegalStateException("Storage can only be changed when there are no student points");
+        }
+        StudentPointsStore store = switch (storage) {
+            case HEAP -> new MapStudentPointsStore();
+            case MAPPED -> new MappedStudentPointsStore(directory != null
+                    ? directory.resolve(MappedStudentPointsStore.POINTS_FILE)
+                    : temporaryPointsFile());
+        };
+        studentPoints.close();
+        studentPoints = store;
+    }
 
     /**
      * Add student points.
@@ -26,58 +105,390 @@ public final class StudentPointsData {
      */
     public synchronized int addStudentPoints(StudentPointsRecord studentPointsRecord) {
         int studentPointsId = nextStudentPointsId;
-        studentPointsRecord.setStudentId(studentPointsId);
-        studentPoints.put(studentPointsId, studentPointsRecord);
+        studentPointsRecord.setStudentPointsId(studentPointsId);
+        studentPoints.put(studentPointsRecord);
+        index(studentPointsRecord, true);
+        aggregate(studentPointsRecord, 1);
         nextStudentPointsId++;
+        version++;
+        if (journal != null) journal.logAddStudentPoints(studentPointsRecord);
         return studentPointsId;
     }
 
+    /**
+     * Restore student points with its existing student points id. The statistics aggregates
+     * are not updated, call {@link #rebuildAggregates()} once everything is restored.
+     *
+     * @param studentPointsRecord Student points record to restore.
+     */
+    synchronized void restoreStudentPoints(StudentPointsRecord studentPointsRecord) {
+        int studentPointsId = studentPointsRecord.studentPointsId();
+        studentPoints.put(studentPointsRecord);
+        index(studentPointsRecord, true);
+        aggregatesCurrent = false;
+        version++;
+        nextStudentPointsId = Math.max(nextStudentPointsId, studentPointsId + 1);
+    }
+
+    /**
+     * Get number of student points.
+     *
+     * @return Number of student points records.
+     */
+    public synchronized int getNumberOfStudentPoints() {
+        return studentPoints.size();
+    }
+
     /**
      * Get list of student points.
      *
      * @return List of student points records.
      */
-    public List<StudentPointsRecord> getStudentPoints() {
-        List<StudentPointsRecord> studentPointsRecords = new ArrayList<>();
-        studentPoints.forEach((key, value) -> studentPointsRecords.add(value));
+    public synchronized List<StudentPointsRecord> getStudentPoints() {
+        List<StudentPointsRecord> studentPointsRecords = new ArrayList<>(studentPoints.size());
+        studentPoints.forEach(studentPointsRecord -> studentPointsRecords.add(new StudentPointsRecord(
+                studentPointsRecord.studentPointsId(), studentPointsRecord.studentId(),
+                studentPointsRecord.course1Points(), studentPointsRecord.course2Points(),
+                studentPointsRecord.course3Points(), studentPointsRecord.course4Points())));
         return studentPointsRecords;
     }
 
     /**
-     * Get list of student points by course id.
+     * Get list of student points by course id. Only the records with points for the course
+     * are read.
      *
      * @param courseId Course id to find.
-     * @return List of student points records.
+     * @return List of student points records with points for the course, in id order.
      */
-    public List<StudentPointsRecord> getStudentPointsByCourseId(int courseId) {
-        List<StudentPointsRecord> studentPointsRecords = new ArrayList<>();
-        for (Map.Entry<Integer, StudentPointsRecord> entry : studentPoints.entrySet()) {
-            StudentPointsRecord studentPointsRecord = entry.getValue();
-            switch (courseId) {
-                case 1 -> {
-                    if (studentPointsRecord.course1Points() > 0) studentPointsRecords.add(studentPointsRecord);
+    public synchronized List<StudentPointsRecord> getStudentPointsByCourseId(int courseId) {
+        if ((courseId < 1) || (courseId > 4)) {
+            throw new IllegalStateException("Unexpected value: " + courseId);
+        }
+        IdList studentPointsIds = courseStudentPointsIds[courseId];
+        List<StudentPointsRecord> studentPointsRecords = new ArrayList<>(studentPointsIds.size());
+        for (int i = 0; i < studentPointsIds.size(); i++) {
+            studentPointsRecords.add(studentPoints.get(studentPointsIds.get(i)));
+        }
+        return studentPointsRecords;
+    }
+
+    /**
+     * Call action for each student points record with points for a course, in id order.
+     * Unlike {@link #getStudentPointsByCourseId(int)} no list is built and one record is
+     * reused for every call, so it must be copied to be kept.
+     *
+     * @param courseId Course id to find.
+     * @param action   Action to call.
+     */
+    public synchronized void forEachStudentPointsByCourseId(int courseId, Consumer<StudentPointsRecord> action) {
+        if ((courseId < 1) || (courseId > 4)) {
+            throw new IllegalStateException("Unexpected value: " + courseId);
+        }
+        IdList studentPointsIds = courseStudentPointsIds[courseId];
+        var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0, 0);
+        for (int i = 0; i < studentPointsIds.size(); i++) {
+            if (studentPoints.read(studentPointsIds.get(i), studentPointsRecord)) {
+                action.accept(studentPointsRecord);
+            }
+        }
+    }
+
+    /**
+     * Get course statistics. The statistics are maintained as student points are added
+     * and deleted so no student points records are read, unless records were restored
+     * since the aggregates were last rebuilt.
+     *
+     * @param courseId Course id to find.
+     * @return Course statistics record.
+     */
+    public synchronized CourseStatisticsRecord getCourseStatistics(int courseId) {
+        if ((courseId < 1) || (courseId > 4)) {
+            throw new IllegalStateException("Unexpected value: " + courseId);
+        }
+        if (!aggregatesCurrent) {
+            rebuildAggregates();
+        }
+        return new CourseStatisticsRecord(courseId, courseEnrolledStudents[courseId].cardinality(),
+                courseActivity[courseId], courseGradeSums[courseId]);
+    }
+
+    /**
+     * Get ids of the students enrolled in every one of a set of courses, that is with
+     * points for each of them. The course enrollment bit sets are combined with bitwise
+     * and, so no student points records are read.
+     *
+     * @param courseIds Course ids to find. At least one course id must be given.
+     * @return Bit set with the bit of each student id set.
+     */
+    public synchronized BitSet getEnrolledStudents(int... courseIds) {
+        if (courseIds.length == 0) {
+            throw new IllegalStateException("No course ids");
+        }
+        for (int courseId : courseIds) {
+            if ((courseId < 1) || (courseId > 4)) {
+                throw new IllegalStateException("Unexpected value: " + courseId);
+            }
+        }
+        if (!aggregatesCurrent) {
+            rebuildAggregates();
+        }
+        BitSet enrolledStudents = (BitSet) courseEnrolledStudents[courseIds[0]].clone();
+        for (int i = 1; i < courseIds.length; i++) {
+            enrolledStudents.and(courseEnrolledStudents[courseIds[i]]);
+        }
+        return enrolledStudents;
+    }
+
+    /**
+     * Delete student points by id.
+     *
+     * @param studentPointsId Student points id to delete.
+     */
+    public synchronized void deleteStudentPoints(int studentPointsId) {
+        // The per student counts are built from the stored records, so before the record goes.
+        if (aggregatesCurrent && (studentCourseActivity == null)) {
+            buildStudentCourseActivity();
+        }
+        StudentPointsRecord studentPointsRecord = studentPoints.remove(studentPointsId);
+        if (studentPointsRecord != null) {
+            index(studentPointsRecord, false);
+            aggregate(studentPointsRecord, -1);
+            version++;
+            if (journal != null) journal.logDeleteStudentPoints(studentPointsId);
+        }
+    }
+
+    /**
+     * Call action for each student points record. The record passed to the action may be
+     * reused for the next call.
+     *
+     * @param action Action to call.
+     */
+    void forEachStudentPoints(Consumer<StudentPointsRecord> action) {
+        studentPoints.forEach(action);
+    }
+
+    int getNextStudentPointsId() {
+        return nextStudentPointsId;
+    }
+
+    void setNextStudentPointsId(int nextStudentPointsId) {
+        this.nextStudentPointsId = nextStudentPointsId;
+    }
+
+    /**
+     * Delete all student points.
+     */
+    synchronized void clear() {
+        studentPoints.clear();
+        for (int courseId = 1; courseId < 5; courseId++) {
+            courseStudentPointsIds[courseId].clear();
+        }
+        clearAggregates();
+        studentCourseActivity = new HashMap<>();
+        aggregatesCurrent = true;
+        nextStudentPointsId = 10000;
+        version++;
+    }
+
+    /**
+     * Get version of the store. The version goes up with every change to the student
+     * points, so anything worked out from the store is still current while the version read
+     * before working it out has not changed.
+     *
+     * @return Version of the store.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Rebuild the course statistics aggregates from all student points records, on the
+     * common fork-join pool if there are at least {@link #PARALLEL_THRESHOLD} records.
+     */
+    synchronized void rebuildAggregates() {
+        rebuildAggregates(ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Rebuild the course statistics aggregates from all student points records. In
+     * parallel, the student points id range is split into tasks which each aggregate their
+     * records into their own partial aggregates, and the partial aggregates are merged.
+     *
+     * @param pool              Fork-join pool to rebuild on.
+     * @param parallelThreshold Number of records from which to rebuild in parallel.
+     */
+    synchronized void rebuildAggregates(ForkJoinPool pool, int parallelThreshold) {
+        int firstId = 10000;
+        Aggregates aggregates;
+        if (studentPoints.size() < parallelThreshold) {
+            aggregates = new Aggregates();
+            studentPoints.forEach(aggregates::add);
+        } else {
+            // Tasks only read the store, which no one changes while the lock is held.
+            int taskIds = Math.max(1, (nextStudentPointsId - firstId) / (pool.getParallelism() * TASKS_PER_THREAD));
+            aggregates = pool.invoke(new AggregateTask(studentPoints, firstId, nextStudentPointsId, taskIds));
+        }
+
+        clearAggregates();
+        for (int courseId = 1; courseId < 5; courseId++) {
+            courseEnrolledStudents[courseId].or(aggregates.enrolledStudents[courseId]);
+            courseActivity[courseId] = (int) aggregates.activity[courseId];
+            courseGradeSums[courseId] = aggregates.gradeSums[courseId];
+        }
+        studentCourseActivity = null;
+        aggregatesCurrent = true;
+    }
+
+    /**
+     * Partial course statistics aggregates, indexed by course id.
+     */
+    private static final class Aggregates {
+        final BitSet[] enrolledStudents = {null, new BitSet(), new BitSet(), new BitSet(), new BitSet()};
+        final long[] activity = new long[5];
+        final long[] gradeSums = new long[5];
+
+        void add(StudentPointsRecord studentPointsRecord) {
+            for (int courseId = 1; courseId < 5; courseId++) {
+                int points = studentPointsRecord.coursePoints(courseId);
+                if (points > 0) {
+                    enrolledStudents[courseId].set(studentPointsRecord.studentId());
+                    activity[courseId]++;
+                    gradeSums[courseId] += points;
                 }
-                case 2 -> {
-                    if (studentPointsRecord.course2Points() > 0) studentPointsRecords.add(studentPointsRecord);
+            }
+        }
+
+        Aggregates merge(Aggregates other) {
+            for (int courseId = 1; courseId < 5; courseId++) {
+                enrolledStudents[courseId].or(other.enrolledStudents[courseId]);
+                activity[courseId] += other.activity[courseId];
+                gradeSums[courseId] += other.gradeSums[courseId];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Aggregate the student points records in a student points id range.
+     */
+    private static final class AggregateTask extends RecursiveTask<Aggregates> {
+        private static final long serialVersionUID = 1L;
+
+        private final StudentPointsStore studentPoints;
+        private final int fromId;
+        private final int toId;
+        private final int taskIds;
+
+        /**
+         * @param studentPoints Store to read.
+         * @param fromId        First student points id of the range.
+         * @param toId          Student points id after the range.
+         * @param taskIds       Number of ids from which the range is split.
+         */
+        AggregateTask(StudentPointsStore studentPoints, int fromId, int toId, int taskIds) {
+            this.studentPoints = studentPoints;
+            this.fromId = fromId;
+            this.toId = toId;
+            this.taskIds = taskIds;
+        }
+
+        @Override
+        protected Aggregates compute() {
+            if (toId - fromId <= taskIds) {
+                var aggregates = new Aggregates();
+                var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0, 0);
+                for (int studentPointsId = fromId; studentPointsId < toId; studentPointsId++) {
+                    if (studentPoints.read(studentPointsId, studentPointsRecord)) {
+                        aggregates.add(studentPointsRecord);
+                    }
                 }
-                case 3 -> {
-                    if (studentPointsRecord.course3Points() > 0) studentPointsRecords.add(studentPointsRecord);
+                return aggregates;
+            }
+            int middleId = (fromId + toId) >>> 1;
+            var left = new AggregateTask(studentPoints, fromId, middleId, taskIds);
+            left.fork();
+            Aggregates right = new AggregateTask(studentPoints, middleId, toId, taskIds).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private void clearAggregates() {
+        for (int courseId = 1; courseId < 5; courseId++) {
+            courseEnrolledStudents[courseId].clear();
+        }
+        Arrays.fill(courseActivity, 0);
+        Arrays.fill(courseGradeSums, 0);
+    }
+
+    /**
+     * Build the per student counts of records with points for each course.
+     */
+    private void buildStudentCourseActivity() {
+        studentCourseActivity = new HashMap<>();
+        studentPoints.forEach(studentPointsRecord -> {
+            int[] activity = studentCourseActivity.computeIfAbsent(studentPointsRecord.studentId(), k -> new int[5]);
+            for (int courseId = 1; courseId < 5; courseId++) {
+                if (studentPointsRecord.coursePoints(courseId) > 0) {
+                    activity[courseId]++;
                 }
-                case 4 -> {
-                    if (studentPointsRecord.course4Points() > 0) studentPointsRecords.add(studentPointsRecord);
+            }
+        });
+    }
+
+    private static Path temporaryPointsFile() throws IOException {
+        Path file = Files.createTempFile("tracker", ".points");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    /**
+     * Add or remove a student points record id in the course indexes.
+     *
+     * @param studentPointsRecord Student points record to index.
+     * @param add                 true when the record is added, false when it is deleted.
+     */
+    private void index(StudentPointsRecord studentPointsRecord, boolean add) {
+        int studentPointsId = studentPointsRecord.studentPointsId();
+        for (int courseId = 1; courseId < 5; courseId++) {
+            if (studentPointsRecord.coursePoints(courseId) > 0) {
+                if (add) {
+                    courseStudentPointsIds[courseId].add(studentPointsId);
+                } else {
+                    courseStudentPointsIds[courseId].remove(studentPointsId);
                 }
-                default -> throw new IllegalStateException("Unexpected value: " + courseId);
             }
         }
-        return studentPointsRecords;
     }
 
     /**
-     * Delete student points by id.
+     * Apply a student points record to the course statistics aggregates. Nothing is done
+     * while the aggregates are waiting to be rebuilt.
      *
-     * @param studentPointsId Student points id to delete.
+     * @param studentPointsRecord Student points record to apply.
+     * @param direction           1 when the record is added, -1 when it is deleted.
      */
-    public void deleteStudentPoints(int studentPointsId) {
-        studentPoints.remove(studentPointsId);
+    private void aggregate(StudentPointsRecord studentPointsRecord, int direction) {
+        if (!aggregatesCurrent) {
+            return;
+        }
+        int studentId = studentPointsRecord.studentId();
+        // Deletes always have per student counts, adds only keep them up to date if they are built.
+        int[] activity = (studentCourseActivity != null)
+                ? studentCourseActivity.computeIfAbsent(studentId, k -> new int[5]) : null;
+        for (int courseId = 1; courseId < 5; courseId++) {
+            int points = studentPointsRecord.coursePoints(courseId);
+            if (points > 0) {
+                if (activity != null) activity[courseId] += direction;
+                // Enrollment changes when a student's first record is added or last record is deleted.
+                if (direction > 0) courseEnrolledStudents[courseId].set(studentId);
+                if ((direction < 0) && (activity[courseId] == 0)) courseEnrolledStudents[courseId].clear(studentId);
+                courseActivity[courseId] += direction;
+                courseGradeSums[courseId] += (long) direction * points;
+            }
+        }
+        if ((direction < 0) && (activity[1] + activity[2] + activity[3] + activity[4] == 0)) {
+            studentCourseActivity.remove(studentId);
+        }
     }
 }
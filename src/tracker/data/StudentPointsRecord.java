@@ -84,6 +84,16 @@ public final class StudentPointsRecord {
         this.course4Points = course4Points;
     }
 
+    public int coursePoints(int courseId) {
+        return switch (courseId) {
+            case 1 -> course1Points;
+            case 2 -> course2Points;
+            case 3 -> course3Points;
+            case 4 -> course4Points;
+            default -> throw new IllegalStateException("Unexpected value: " + courseId);
+        };
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == this) return true;
@@ -0,0 +1,63 @@
+package tracker.data;
+
+import java.io.Closeable;
+import java.util.function.Consumer;
+
+/**
+ * Storage backend of the student points data store.
+ */
+interface StudentPointsStore extends Closeable {
+    /**
+     * Add student points.
+     *
+     * @param studentPointsRecord Student points record to add. The student points id must
+     *                            be set.
+     */
+    void put(StudentPointsRecord studentPointsRecord);
+
+    /**
+     * Get student points by id.
+     *
+     * @param studentPointsId Student points id to find.
+     * @return Student points record the caller may keep, or null if the student points
+     * were not found.
+     */
+    StudentPointsRecord get(int studentPointsId);
+
+    /**
+     * Read student points by id into a record.
+     *
+     * @param studentPointsId     Student points id to find.
+     * @param studentPointsRecord Student points record to receive the values.
+     * @return true if the student points were found.
+     */
+    boolean read(int studentPointsId, StudentPointsRecord studentPointsRecord);
+
+    /**
+     * Remove student points by id.
+     *
+     * @param studentPointsId Student points id to remove.
+     * @return Removed student points record, or null if the student points were not found.
+     */
+    StudentPointsRecord remove(int studentPointsId);
+
+    /**
+     * Get number of student points.
+     *
+     * @return Number of student points records.
+     */
+    int size();
+
+    /**
+     * Call action for each student points record. The record passed to the action may be
+     * reused for the next call, so it must be copied to be kept.
+     *
+     * @param action Action to call.
+     */
+    void forEach(Consumer<StudentPointsRecord> action);
+
+    /**
+     * Remove all student points.
+     */
+    void clear();
+}
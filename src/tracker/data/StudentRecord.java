@@ -44,6 +44,21 @@ public final class StudentRecord {
         this.course4NotificationStatus = 0;
     }
 
+    public StudentRecord(StudentRecord studentRecord) {
+        this.studentId = studentRecord.studentId;
+        this.firstName = studentRecord.firstName;
+        this.lastName = studentRecord.lastName;
+        this.email = studentRecord.email;
+        this.course1Points = studentRecord.course1Points;
+        this.course2Points = studentRecord.course2Points;
+        this.course3Points = studentRecord.course3Points;
+        this.course4Points = studentRecord.course4Points;
+        this.course1NotificationStatus = studentRecord.course1NotificationStatus;
+        this.course2NotificationStatus = studentRecord.course2NotificationStatus;
+        this.course3NotificationStatus = studentRecord.course3NotificationStatus;
+        this.course4NotificationStatus = studentRecord.course4NotificationStatus;
+    }
+
     public int studentId() {
         return studentId;
     }
@@ -0,0 +1,119 @@
+package tracker.data;
+
+import java.util.function.Consumer;
+
+/**
+ * Storage backend of the student data store. Backends allow different students to be
+ * read and changed from several threads at once; the student data store makes sure each
+ * student is only used by one thread at a time.
+ */
+interface StudentStore {
+    /**
+     * Add student, or replace the student with the same student id.
+     *
+     * @param studentRecord Student record to add. The student id must be set.
+     */
+    void put(StudentRecord studentRecord);
+
+    /**
+     * Get student by id.
+     *
+     * @param studentId Student id to find.
+     * @return Student record the caller may keep, or null if the student was not found.
+     */
+    StudentRecord get(int studentId);
+
+    /**
+     * Get student course points.
+     *
+     * @param studentId Student id to find.
+     * @param courseId  Course id to find.
+     * @return Course points, or -1 if the student was not found.
+     */
+    int getCoursePoints(int studentId, int courseId);
+
+    /**
+     * Get student course notification status.
+     *
+     * @param studentId Student id to find.
+     * @param courseId  Course id to find.
+     * @return Notification status, or -1 if the student was not found.
+     */
+    int getCourseNotificationStatus(int studentId, int courseId);
+
+    /**
+     * Remove student by id.
+     *
+     * @param studentId Student id to remove.
+     * @return Removed student record, or null if the student was not found.
+     */
+    StudentRecord remove(int studentId);
+
+    /**
+     * Find the lowest student id in a range.
+     *
+     * @param fromId First student id of the range.
+     * @param toId   Student id after the range.
+     * @return Lowest student id in the range, or -1 if there is no student in the range.
+     */
+    int nextId(int fromId, int toId);
+
+    /**
+     * Get number of students.
+     *
+     * @return Number of student records.
+     */
+    int size();
+
+    /**
+     * Call action for each student. The record passed to the action may be stored or
+     * reused by the backend, so it must be copied to be kept.
+     *
+     * @param action Action to call.
+     */
+    void forEach(Consumer<StudentRecord> action);
+
+    /**
+     * Add student points to a student's course points.
+     *
+     * @param studentPointsRecord Student points record with values to add.
+     * @return true if the student was found.
+     */
+    boolean addPoints(StudentPointsRecord studentPointsRecord);
+
+    /**
+     * Add student points to a student's course points and flag the courses the points
+     * complete. A course is flagged for notification, status 0 to 1, when its points reach
+     * the completion points.
+     *
+     * @param studentPointsRecord Student points record with values to add.
+     * @param completionPoints    Points needed to complete each course, indexed by course id.
+     * @return Bit mask of the courses flagged, bit n for course n, or -1 if the student was
+     * not found.
+     */
+    int applyPoints(StudentPointsRecord studentPointsRecord, int[] completionPoints);
+
+    /**
+     * Set student course notification status.
+     *
+     * @param studentId Student id to update.
+     * @param courseId  Course id to update.
+     * @param status    New notification status.
+     * @return true if the student was found.
+     */
+    boolean setCourseNotificationStatus(int studentId, int courseId, int status);
+
+    /**
+     * Set student email.
+     *
+     * @param studentId Student id to update.
+     * @param email     New email.
+     * @return true if the student was found.
+     */
+    boolean setEmail(int studentId, String email);
+
+    /**
+     * Remove all students.
+     */
+    void clear();
+}
@@ -4,6 +4,8 @@ import tracker.data.StudentData;
 import tracker.data.StudentPointsData;
 import tracker.data.StudentPointsRecord;
 import tracker.data.StudentRecord;
+import tracker.notification.NotificationDispatcher;
+import tracker.output.ConsoleWriter;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -24,8 +26,13 @@ public final class AddPointsHandler {
         return instance;
     }
 
+    private final ConsoleWriter console = ConsoleWriter.getInstance();
+    private final InputParser inputParser = InputParser.getInstance();
     private StudentData studentData = StudentData.getInstance();
     private StudentPointsData studentPointsData = StudentPointsData.getInstance();
+    private NotificationDispatcher notificationDispatcher = NotificationDispatcher.getInstance();
+
+    static final int NUMBER_OF_ELEMENTS = 5;
 
     private final int[] totalCoursePoints = new int[5];
 
@@ -47,23 +54,35 @@ public final class AddPointsHandler {
         this.studentPointsData = studentPointsData;
     }
 
+    /**
+     * Set notification dispatcher class to use.
+     *
+     * @param notificationDispatcher Notification dispatcher class to use.
+     */
+    public void setNotificationDispatcher(NotificationDispatcher notificationDispatcher) {
+        this.notificationDispatcher = notificationDispatcher;
+    }
+
     /**
      * Do add points input loop.
      *
      * @param scanner Scanner to use for input.
      */
     public void doAddPointsLoop(Scanner scanner) {
-        System.out.println("Enter an id and points or 'back' to return:");
+        console.println("Enter an id and points or 'back' to return:");
+
+        // Every line is parsed into the same record and buffer.
+        var parsedRecord = new StudentPointsRecord(0, 0, 0, 0, 0);
+        int[] parsedElements = new int[NUMBER_OF_ELEMENTS];
 
         // Enter id and points or 'back'.
         while (true) {
-            String input = scanner.nextLine()
-                    .trim()
-                    .replaceAll("\\s+", " ");
+            console.flush();
+            String input = inputParser.normalize(scanner.nextLine());
 
             // Show warning if nothing was entered.
             if (input.isEmpty()) {
-                System.out.println("No input");
+                console.println("No input");
                 continue;
             }
 
@@ -72,87 +91,89 @@ public final class AddPointsHandler {
                 break;
             }
 
-            // Parse input elements into a student points record.
-            String[] elements = input.split(" ");
-            Optional<StudentPointsRecord> studentPointsRecordOptional = buildStudentPointsRecord(elements);
-            if (studentPointsRecordOptional.isEmpty()) {
-                System.out.println("Incorrect points format.");
+            // Parse input into the reusable student points record.
+            if (!parseStudentPointsRecord(input, false, parsedRecord, parsedElements)) {
+                console.println("Incorrect points format.");
                 continue;
             }
 
             // Validate student points record.
-            var studentPointsRecord = studentPointsRecordOptional.get();
-            List<String> results = validateStudentPointsRecord(studentPointsRecord);
+            List<String> results = validateStudentPointsRecord(parsedRecord);
 
             // Show warning if validation failed.
             if (!results.isEmpty()) {
-                System.out.println(results.get(0));
+                console.println(results.get(0));
                 continue;
             }
 
-            // Update student course points and notification status in data store.
-            Optional<StudentRecord> studentRecordOptional = studentData.updatePoints((studentPointsRecord));
-            if (studentRecordOptional.isPresent()) {
-                var studentRecord = studentRecordOptional.get();
-                int studentId = studentRecord.studentId();
-                if ((studentRecord.course1Points() >= totalCoursePoints[1])
-                        && (studentRecord.course1NotificationStatus() == 0)) {
-                    studentData.setCourseNotificationStatus(studentId, 1, 1);
-                }
-                if ((studentRecord.course2Points() >= totalCoursePoints[2])
-                        && (studentRecord.course2NotificationStatus() == 0)) {
-                    studentData.setCourseNotificationStatus(studentId, 2, 1);
-                }
-                if ((studentRecord.course3Points() >= totalCoursePoints[3])
-                        && (studentRecord.course3NotificationStatus() == 0)) {
-                    studentData.setCourseNotificationStatus(studentId, 3, 1);
-                }
-                if ((studentRecord.course4Points() >= totalCoursePoints[4])
-                        && (studentRecord.course4NotificationStatus() == 0)) {
-                    studentData.setCourseNotificationStatus(studentId, 4, 1);
-                }
+            // Update student course points and notification status in data store, and wait
+            // for the change to be on disk before confirming it.
+            // The data store keeps the record, so it gets a copy of the reusable one.
+            addPoints(new StudentPointsRecord(parsedRecord.studentId(), parsedRecord.course1Points(),
+                    parsedRecord.course2Points(), parsedRecord.course3Points(), parsedRecord.course4Points()));
+            studentData.sync();
+            console.println("Points updated.");
+        }
+    }
 
-                // Add student points record to data store.
-                studentPointsData.addStudentPoints(studentPointsRecord);
+    /**
+     * Add points to a student's courses, flag newly completed courses for notification and
+     * record the student points, as one change in the data layer. Newly completed courses
+     * are passed to the notification dispatcher when it is running.
+     *
+     * @param studentPointsRecord Validated student points record to add.
+     * @return Bit mask of the courses completed by the points, bit n for course n, or -1 if
+     * the student was not found.
+     */
+    int addPoints(StudentPointsRecord studentPointsRecord) {
+        int completedCourses = studentData.applyPoints(studentPointsRecord, totalCoursePoints, studentPointsData);
+        if ((completedCourses > 0) && notificationDispatcher.isRunning()) {
+            for (int courseId = 1; courseId < 5; courseId++) {
+                if ((completedCourses & (1 << courseId)) != 0) {
+                    notificationDispatcher.submit(studentPointsRecord.studentId(), courseId);
+                }
             }
-            System.out.println("Points updated.");
         }
+        return completedCourses;
     }
 
     /**
-     * Parse input elements into a student points record.
+     * Parse input into a reusable student points record. There must be a student id and
+     * four course points, none negative and no course points above the course total. The
+     * ints are read straight from the input into the caller's buffer, without splitting
+     * it into strings, so nothing is allocated.
      *
-     * @param elements Information entered by user.
-     * @return Optional student points record containing the input information. The
-     * Optional is empty if the input elements could not be parsed.
+     * @param input               Id and points entered by user.
+     * @param commaSeparated      true if commas also separate the id and points.
+     * @param studentPointsRecord Student points record to receive the id and points. It is
+     *                            left unchanged if the input could not be parsed.
+     * @param parsedElements      Buffer of five ints kept by the caller for parsing.
+     * @return true if the input was parsed.
      */
-    Optional<StudentPointsRecord> buildStudentPointsRecord(String[] elements) {
-        final int NUMBER_OF_ELEMENTS = 5;
-
-        // Is there an incorrect number of input elements?
-        if (elements.length != NUMBER_OF_ELEMENTS) {
-            return Optional.empty();
+    boolean parseStudentPointsRecord(CharSequence input, boolean commaSeparated, StudentPointsRecord studentPointsRecord,
+                                     int[] parsedElements) {
+        // Is there an incorrect number of input elements, or one that is not an int?
+        if (inputParser.parseInts(input, commaSeparated, parsedElements) != NUMBER_OF_ELEMENTS) {
+            return false;
         }
 
-        // Convert input elements to ints.
-        int[] elementsInt = new int[NUMBER_OF_ELEMENTS];
-        try {
-            for (int i = 0; i < NUMBER_OF_ELEMENTS; i++) {
-                elementsInt[i] = Integer.parseInt(elements[i]);
-                // Input element must not be negative.
-                if (elementsInt[i] < 0) {
-                    return Optional.empty();
-                }
-                // Course id input element must not be greater than total course points.
-                if ((i > 0) && (elementsInt[i] > totalCoursePoints[i])) {
-                    return Optional.empty();
-                }
+        for (int i = 0; i < NUMBER_OF_ELEMENTS; i++) {
+            // Input element must not be negative.
+            if (parsedElements[i] < 0) {
+                return false;
+            }
+            // Course id input element must not be greater than total course points.
+            if ((i > 0) && (parsedElements[i] > totalCoursePoints[i])) {
+                return false;
             }
-        } catch (NumberFormatException e) {
-            return Optional.empty();
         }
 
-        return Optional.of(new StudentPointsRecord(elementsInt[0], elementsInt[1], elementsInt[2], elementsInt[3], elementsInt[4]));
+        studentPointsRecord.setStudentId(parsedElements[0]);
+        studentPointsRecord.setCourse1Points(parsedElements[1]);
+        studentPointsRecord.setCourse2Points(parsedElements[2]);
+        studentPointsRecord.setCourse3Points(parsedElements[3]);
+        studentPointsRecord.setCourse4Points(parsedElements[4]);
+        return true;
     }
 
     /**
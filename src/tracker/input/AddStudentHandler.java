@@ -2,6 +2,7 @@ package tracker.input;
 
 import tracker.data.StudentData;
 import tracker.data.StudentRecord;
+import tracker.output.ConsoleWriter;
 
 import java.util.*;
 
@@ -15,6 +16,8 @@ public final class AddStudentHandler {
         return instance;
     }
 
+    private final ConsoleWriter console = ConsoleWriter.getInstance();
+    private final InputParser inputParser = InputParser.getInstance();
     private StudentData studentData = StudentData.getInstance();
 
     /**
@@ -32,23 +35,22 @@ public final class AddStudentHandler {
      * @param scanner Scanner to use for input.
      */
     public void doAddStudentLoop(Scanner scanner) {
-        System.out.println("Enter student credentials or 'back' to return:");
+        console.println("Enter student credentials or 'back' to return:");
 
         // Enter student credentials or 'back'.
         while (true) {
-            String input = scanner.nextLine()
-                    .trim()
-                    .replaceAll("\\s+", " ");
+            console.flush();
+            String input = inputParser.normalize(scanner.nextLine());
 
             // Show warning if nothing was entered.
             if (input.isEmpty()) {
-                System.out.println("No input");
+                console.println("No input");
                 continue;
             }
 
             // Exit entry loop if user is done with entry.
             if (input.equalsIgnoreCase("back")) {
-                System.out.printf("Total %d students have been added.%n", studentData.getNumberOfStudents());
+                console.printf("Total %d students have been added.%n", studentData.getNumberOfStudents());
                 break;
             }
 
@@ -56,7 +58,7 @@ public final class AddStudentHandler {
             String[] elements = input.split(" ");
             Optional<StudentRecord> studentRecordOptional = buildStudentRecord(elements);
             if (studentRecordOptional.isEmpty()) {
-                System.out.println("Incorrect credentials.");
+                console.println("Incorrect credentials.");
                 continue;
             }
 
@@ -66,16 +68,31 @@ public final class AddStudentHandler {
 
             // Show warning if validation failed.
             if (!results.isEmpty()) {
-                System.out.println(results.get(0));
+                console.println(results.get(0));
                 continue;
             }
 
-            // Add student to data store.
-            studentData.addStudent((studentRecord));
-            System.out.println("The student has been added.");
+            // Add student to data store. The email can still be taken by a student added
+            // from another thread since it was validated.
+            if (addStudent(studentRecord) == -1) {
+                console.println("This email is already taken.");
+                continue;
+            }
+            studentData.sync();
+            console.println("The student has been added.");
         }
     }
 
+    /**
+     * Add student to data store.
+     *
+     * @param studentRecord Validated student record to add.
+     * @return Student id of student record, or -1 if the email is already taken.
+     */
+    int addStudent(StudentRecord studentRecord) {
+        return studentData.addStudent(studentRecord);
+    }
+
     /**
      * Parse input elements into a student record.
      *
@@ -111,6 +128,25 @@ public final class AddStudentHandler {
      * validation failure messages if validation failed.
      */
     List<String> validateStudentRecord(StudentRecord studentRecord) {
+        List<String> results = validateStudentFormat(studentRecord);
+
+        // Was email already used?
+        if (isEmailTaken(studentRecord.email())) {
+            results.add("This email is already taken.");
+        }
+
+        return results;
+    }
+
+    /**
+     * Validate the format of a student record's names and email. This does not use the data
+     * store, so it can be done for many student records at once.
+     *
+     * @param studentRecord Student record to validate.
+     * @return Empty List if validation was successful. Otherwise, returns a List containing
+     * validation failure messages if validation failed.
+     */
+    List<String> validateStudentFormat(StudentRecord studentRecord) {
         List<String> results = new ArrayList<>();
 
         if (!isNameValid(studentRecord.firstName())) {
@@ -130,21 +166,18 @@ public final class AddStudentHandler {
             results.add("Incorrect email.");
         }
 
-        // Was email already used?
-        if (studentData.getStudentByEmail(studentRecord.email()).isPresent()) {
-            results.add("This email is already taken.");
-        }
-
         return results;
     }
 
+    boolean isEmailTaken(String email) {
+        return studentData.getStudentByEmail(email).isPresent();
+    }
+
     boolean isNameValid(String name) {
-        return (name.matches("['\\-A-Za-z]{2,}"))
-                && (!name.matches("^['\\-].+|.+['\\-]$"))
-                && (!name.matches(".+['\\-]{2,}.+"));
+        return inputParser.isNameValid(name);
     }
 
     boolean isEmailValid(String email) {
-        return (email.matches("^.+@.+\\..+$"));
+        return inputParser.isEmailValid(email);
     }
 }
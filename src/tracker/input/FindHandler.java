@@ -2,6 +2,7 @@ package tracker.input;
 
 import tracker.data.StudentData;
 import tracker.data.StudentRecord;
+import tracker.output.ConsoleWriter;
 
 import java.util.Optional;
 import java.util.Scanner;
@@ -16,6 +17,8 @@ public final class FindHandler {
         return instance;
     }
 
+    private final ConsoleWriter console = ConsoleWriter.getInstance();
+    private final InputParser inputParser = InputParser.getInstance();
     private StudentData studentData = StudentData.getInstance();
 
     /**
@@ -33,17 +36,16 @@ public final class FindHandler {
      * @param scanner Scanner to use for input.
      */
     public void doFindLoop(Scanner scanner) {
-        System.out.println("Enter an id or 'back' to return:");
+        console.println("Enter an id or 'back' to return:");
 
         // Enter id or 'back'.
         while (true) {
-            String input = scanner.nextLine()
-                    .trim()
-                    .replaceAll("\\s+", " ");
+            console.flush();
+            String input = inputParser.normalize(scanner.nextLine());
 
             // Show warning if nothing was entered.
             if (input.isEmpty()) {
-                System.out.println("No input");
+                console.println("No input");
                 continue;
             }
 
@@ -55,18 +57,17 @@ public final class FindHandler {
             // Get student record from data store.
             Optional<StudentRecord> studentRecordOptional = getStudent(input);
             if (studentRecordOptional.isEmpty()) {
-                System.out.printf("No student is found for id=%s.%n", input);
+                console.printf("No student is found for id=%s.%n", input);
                 continue;
             }
 
             // Display student information.
             var studentRecord = studentRecordOptional.get();
-            System.out.printf("%d points: Java=%d; DSA=%d; Databases=%d; Spring=%d%n",
-                    studentRecord.studentId(),
-                    studentRecord.course1Points(),
-                    studentRecord.course2Points(),
-                    studentRecord.course3Points(),
-                    studentRecord.course4Points());
+            console.print(studentRecord.studentId())
+                    .print(" points: Java=").print(studentRecord.course1Points())
+                    .print("; DSA=").print(studentRecord.course2Points())
+                    .print("; Databases=").print(studentRecord.course3Points())
+                    .print("; Spring=").println(studentRecord.course4Points());
         }
     }
 
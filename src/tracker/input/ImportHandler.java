@@ -0,0 +1,353 @@
+package tracker.input;
+
+import tracker.data.StudentData;
+import tracker.data.StudentPointsRecord;
+import tracker.data.StudentRecord;
+import tracker.output.ConsoleWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public final class ImportHandler {
+    private static final ImportHandler instance = new ImportHandler();
+
+    private ImportHandler() {
+    }
+
+    public static ImportHandler getInstance() {
+        return instance;
+    }
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final AddPointsHandler addPointsHandler = AddPointsHandler.getInstance();
+    private final AddStudentHandler addStudentHandler = AddStudentHandler.getInstance();
+    private final ConsoleWriter console = ConsoleWriter.getInstance();
+    private final InputParser inputParser = InputParser.getInstance();
+    private final StudentData studentData = StudentData.getInstance();
+
+    /**
+     * Import one line of an import file.
+     */
+    @FunctionalInterface
+    private interface LineImporter {
+        /**
+         * @param line Line of the import file. The line is not blank.
+         * @return Optional failure message. The Optional is empty if the line was imported.
+         */
+        Optional<String> importLine(String line);
+    }
+
+    /**
+     * Import students from a file. Each line holds the same student credentials as the add
+     * students command, with fields separated by spaces or commas. Rejected lines are written
+     * to an error file next to the import file.<br>
+     * Lines go through a pipeline: batches are parsed on the calling thread, validated in
+     * parallel on the common fork-join pool while the next batch is parsed, then committed in
+     * input order on the calling thread. Committing in order keeps student ids in input order
+     * and lets the duplicate email check see every earlier line. Each committed batch is
+     * forced to disk with one journal sync.
+     *
+     * @param file File to import.
+     * @return true if the file could be read.
+     */
+    public boolean importStudents(Path file) {
+        Path errorFile = file.resolveSibling(file.getFileName() + ".errors");
+        ImportErrors errors = new ImportErrors(errorFile);
+
+        int importedCount = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int lineNumber = 0;
+            CompletableFuture<List<StudentLine>> previousBatch = null;
+            boolean endOfFile = false;
+            while (!endOfFile) {
+                // Parse stage.
+                List<StudentLine> batch = new ArrayList<>(BATCH_SIZE);
+                int linesRead = 0;
+                String line;
+                while ((linesRead < BATCH_SIZE) && ((line = reader.readLine()) != null)) {
+                    linesRead++;
+                    lineNumber++;
+                    String input = normalize(line);
+                    if (!input.isEmpty()) {
+                        batch.add(parseStudentLine(lineNumber, line, input));
+                    }
+                }
+                endOfFile = linesRead < BATCH_SIZE;
+
+                // Validation stage, in parallel with parsing the next batch.
+                CompletableFuture<List<StudentLine>> validatedBatch = CompletableFuture.supplyAsync(() -> {
+                    batch.parallelStream()
+                            .filter(studentLine -> studentLine.failure == null)
+                            .forEach(this::validateStudentLine);
+                    return batch;
+                });
+
+                // Commit stage for the previous batch.
+                if (previousBatch != null) {
+                    importedCount += commitStudentLines(joinBatch(previousBatch), errors);
+                }
+                previousBatch = validatedBatch;
+            }
+            importedCount += commitStudentLines(joinBatch(previousBatch), errors);
+        } catch (IOException e) {
+            console.printf("Unable to read %s: %s%n", file, e.getMessage());
+            return false;
+        } finally {
+            errors.close();
+        }
+
+        displaySummary(file, "students", importedCount, errors);
+        return true;
+    }
+
+    /**
+     * Parse stage of a student import line.
+     */
+    private StudentLine parseStudentLine(int lineNumber, String line, String input) {
+        var studentLine = new StudentLine(lineNumber, line);
+        Optional<StudentRecord> studentRecordOptional = addStudentHandler.buildStudentRecord(input.split(" "));
+        if (studentRecordOptional.isEmpty()) {
+            studentLine.failure = "Incorrect credentials.";
+        } else {
+            studentLine.studentRecord = studentRecordOptional.get();
+        }
+        return studentLine;
+    }
+
+    /**
+     * Validation stage of a student import line. May run on any thread.
+     */
+    private void validateStudentLine(StudentLine studentLine) {
+        List<String> results = addStudentHandler.validateStudentFormat(studentLine.studentRecord);
+        if (!results.isEmpty()) {
+            studentLine.failure = results.get(0);
+        }
+    }
+
+    /**
+     * Commit stage of a batch of student import lines. The batch is on disk when this
+     * returns.
+     *
+     * @return Number of students added.
+     */
+    private int commitStudentLines(List<StudentLine> batch, ImportErrors errors) {
+        int importedCount = 0;
+        for (StudentLine studentLine : batch) {
+            if ((studentLine.failure == null) && (addStudentHandler.addStudent(studentLine.studentRecord) == -1)) {
+                studentLine.failure = "This email is already taken.";
+            }
+            if (studentLine.failure != null) {
+                errors.add(studentLine.lineNumber, studentLine.failure, studentLine.line);
+                continue;
+            }
+            importedCount++;
+        }
+        studentData.sync();
+        return importedCount;
+    }
+
+    private static List<StudentLine> joinBatch(CompletableFuture<List<StudentLine>> batch) {
+        try {
+            return batch.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Student import line moving through the import pipeline.
+     */
+    private static final class StudentLine {
+        final int lineNumber;
+        final String line;
+        StudentRecord studentRecord = null;
+        String failure = null;
+
+        StudentLine(int lineNumber, String line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+    }
+
+    /**
+     * Import student points from a file. Each line holds the same id and points as the add
+     * points command, with fields separated by spaces or commas. Rejected lines are written
+     * to an error file next to the import file.<br>
+     * Lines are parsed straight into a reusable record, which is only copied once the line
+     * is accepted.
+     *
+     * @param file File to import.
+     * @return true if the file could be read.
+     */
+    public boolean importPoints(Path file) {
+        var parsedRecord = new StudentPointsRecord(0, 0, 0, 0, 0);
+        int[] parsedElements = new int[AddPointsHandler.NUMBER_OF_ELEMENTS];
+        return importFile(file, "points records", line -> {
+            // Parse line into the reusable student points record.
+            if (!addPointsHandler.parseStudentPointsRecord(line, true, parsedRecord, parsedElements)) {
+                return Optional.of("Incorrect points format.");
+            }
+
+            // Validate student points record.
+            List<String> results = addPointsHandler.validateStudentPointsRecord(parsedRecord);
+            if (!results.isEmpty()) {
+                return Optional.of(results.get(0));
+            }
+
+            // Update student course points and notification status in data store.
+            addPointsHandler.addPoints(new StudentPointsRecord(parsedRecord.studentId(), parsedRecord.course1Points(),
+                    parsedRecord.course2Points(), parsedRecord.course3Points(), parsedRecord.course4Points()));
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * Stream an import file through a line importer in batches and display a summary.
+     * Each batch is imported line by line, then forced to disk with one journal sync rather
+     * than one per line.
+     *
+     * @param file         File to import.
+     * @param description  Description of what each line holds, for the summary.
+     * @param lineImporter Line importer to use.
+     * @return true if the file could be read.
+     */
+    private boolean importFile(Path file, String description, LineImporter lineImporter) {
+        Path errorFile = file.resolveSibling(file.getFileName() + ".errors");
+        ImportErrors errors = new ImportErrors(errorFile);
+
+        int importedCount = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            boolean endOfFile = false;
+            while (!endOfFile) {
+                // Read a batch of lines.
+                batch.clear();
+                String line;
+                while ((batch.size() < BATCH_SIZE) && ((line = reader.readLine()) != null)) {
+                    batch.add(line);
+                }
+                endOfFile = batch.size() < BATCH_SIZE;
+
+                // Import the batch.
+                for (String batchLine : batch) {
+                    lineNumber++;
+
+                    // Skip blank lines.
+                    if (isBlank(batchLine)) {
+                        continue;
+                    }
+
+                    Optional<String> result = lineImporter.importLine(batchLine);
+                    if (result.isPresent()) {
+                        errors.add(lineNumber, result.get(), batchLine);
+                    } else {
+                        importedCount++;
+                    }
+                }
+                studentData.sync();
+            }
+        } catch (IOException e) {
+            console.printf("Unable to read %s: %s%n", file, e.getMessage());
+            return false;
+        } finally {
+            errors.close();
+        }
+
+        displaySummary(file, description, importedCount, errors);
+        return true;
+    }
+
+    /**
+     * Normalize an import line. Commas and runs of whitespace become single spaces.
+     *
+     * @param line Import line.
+     * @return Normalized line.
+     */
+    private String normalize(String line) {
+        return inputParser.normalize(line.replace(',', ' '));
+    }
+
+    /**
+     * Check if an import line is blank, holding nothing but whitespace and commas.
+     *
+     * @param line Import line.
+     * @return true if the line is blank.
+     */
+    private static boolean isBlank(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if ((c > ' ') && (c != ',')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void displaySummary(Path file, String description, int importedCount, ImportErrors errors) {
+        console.printf("Imported %d %s from %s.%n", importedCount, description, file);
+        if (errors.count() > 0) {
+            console.printf("Rejected %d lines. See %s for details.%n", errors.count(), errors.errorFile);
+        }
+    }
+
+    /**
+     * Error file of an import. The file is only created when there is an error, and an error
+     * file left by an earlier import of the same file is removed.
+     */
+    private static final class ImportErrors {
+        private final Path errorFile;
+        private BufferedWriter writer = null;
+        private int count = 0;
+        private boolean writable = true;
+
+        ImportErrors(Path errorFile) {
+            this.errorFile = errorFile;
+        }
+
+        void add(int lineNumber, String message, String line) {
+            count++;
+            if (!writable) {
+                return;
+            }
+            try {
+                if (writer == null) {
+                    writer = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8);
+                }
+                writer.write(String.format("Line %d: %s Input: %s%n", lineNumber, message, line));
+            } catch (IOException e) {
+                ConsoleWriter.getInstance().printf("Unable to write %s: %s%n", errorFile, e.getMessage());
+                writable = false;
+            }
+        }
+
+        int count() {
+            return count;
+        }
+
+        void close() {
+            try {
+                if (writer != null) {
+                    writer.close();
+                } else {
+                    Files.deleteIfExists(errorFile);
+                }
+            } catch (IOException e) {
+                ConsoleWriter.getInstance().printf("Unable to write %s: %s%n", errorFile, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package tracker.input;
+
+/**
+ * Input tokenizing and validation shared by the input handlers. Everything is done with
+ * single pass character scans instead of regular expressions, and input that is already
+ * in normal form is returned without copying.
+ */
+public final class InputParser {
+    private static final InputParser instance = new InputParser();
+
+    private InputParser() {
+    }
+
+    public static InputParser getInstance() {
+        return instance;
+    }
+
+    /**
+     * Normalize input by trimming it and replacing each run of whitespace with a single space.
+     * Same result as {@code input.trim().replaceAll("\\s+", " ")}.
+     *
+     * @param input Input entered by user.
+     * @return Normalized input.
+     */
+    public String normalize(String input) {
+        return normalize(input, ' ');
+    }
+
+    /**
+     * Normalize command input by trimming it and replacing each run of whitespace with a
+     * single underscore. Same result as
+     * {@code input.trim().replaceAll("\\s+", " ").replaceAll(" ", "_")}.
+     *
+     * @param input Input entered by user.
+     * @return Normalized input.
+     */
+    public String normalizeCommand(String input) {
+        return normalize(input, '_');
+    }
+
+    /**
+     * Check name. A name has at least two characters which are ASCII letters, apostrophes
+     * or hyphens. It must start and end with a letter, and apostrophes and hyphens must not
+     * be next to each other.
+     *
+     * @param name Name to check.
+     * @return true if the name is valid.
+     */
+    public boolean isNameValid(CharSequence name) {
+        int length = name.length();
+        if ((length < 2) || !isLetter(name.charAt(0)) || !isLetter(name.charAt(length - 1))) {
+            return false;
+        }
+        boolean previousSeparator = false;
+        for (int i = 1; i < length - 1; i++) {
+            char c = name.charAt(i);
+            if (isLetter(c)) {
+                previousSeparator = false;
+            } else if ((c == '\'') || (c == '-')) {
+                if (previousSeparator) {
+                    return false;
+                }
+                previousSeparator = true;
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check email. An email has at least one character, an '@', at least one character, a
+     * '.' and at least one character, and no line terminators. Same result as
+     * {@code email.matches("^.+@.+\\..+$")}.
+     *
+     * @param email Email to check.
+     * @return true if the email is valid.
+     */
+    public boolean isEmailValid(CharSequence email) {
+        int length = email.length();
+
+        // Use the first '@' with something before it, which leaves the most room for the '.'.
+        int at = -1;
+        for (int i = 0; i < length; i++) {
+            char c = email.charAt(i);
+            if (isLineTerminator(c)) {
+                return false;
+            }
+            if ((at < 0) && (c == '@') && (i > 0)) {
+                at = i;
+            }
+        }
+        if (at < 0) {
+            return false;
+        }
+
+        for (int i = at + 2; i < length - 1; i++) {
+            if (email.charAt(i) == '.') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse ints separated by whitespace, and by commas if requested, straight from the
+     * input without creating strings. Leading and trailing characters are ignored the same
+     * way {@link #normalize(String)} trims them, and each int follows the rules of
+     * {@link Integer#parseInt(String)}.
+     *
+     * @param input          Input to parse.
+     * @param commaSeparated true if commas also separate ints.
+     * @param values         Array to receive the ints.
+     * @return Number of ints parsed, or -1 if an element is not an int or there are more
+     * elements than the array can hold.
+     */
+    public int parseInts(CharSequence input, boolean commaSeparated, int[] values) {
+        int start = 0;
+        int end = input.length();
+        while ((start < end) && isTrimmed(input.charAt(start), commaSeparated)) start++;
+        while ((end > start) && isTrimmed(input.charAt(end - 1), commaSeparated)) end--;
+
+        int count = 0;
+        int i = start;
+        while (i < end) {
+            int elementStart = i;
+            while ((i < end) && !isSeparator(input.charAt(i), commaSeparated)) i++;
+            if (count == values.length) {
+                return -1;
+            }
+            long value = parseInt(input, elementStart, i);
+            if (value == Long.MIN_VALUE) {
+                return -1;
+            }
+            values[count++] = (int) value;
+            while ((i < end) && isSeparator(input.charAt(i), commaSeparated)) i++;
+        }
+        return count;
+    }
+
+    /**
+     * Parse an int the same way as {@link Integer#parseInt(String)}.
+     *
+     * @return The int, or Long.MIN_VALUE if the characters are not an int.
+     */
+    private static long parseInt(CharSequence input, int start, int end) {
+        boolean negative = false;
+        int i = start;
+        if ((i < end) && ((input.charAt(i) == '-') || (input.charAt(i) == '+'))) {
+            negative = input.charAt(i) == '-';
+            i++;
+        }
+        if (i == end) {
+            return Long.MIN_VALUE;
+        }
+
+        // Accumulate negatively so Integer.MIN_VALUE fits.
+        long limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(input.charAt(i), 10);
+            if (digit < 0) {
+                return Long.MIN_VALUE;
+            }
+            result = result * 10 - digit;
+            if (result < limit) {
+                return Long.MIN_VALUE;
+            }
+        }
+        return negative ? result : -result;
+    }
+
+    private static boolean isTrimmed(char c, boolean commaSeparated) {
+        return (c <= ' ') || (commaSeparated && (c == ','));
+    }
+
+    private static boolean isSeparator(char c, boolean commaSeparated) {
+        return isWhitespace(c) || (commaSeparated && (c == ','));
+    }
+
+    private static String normalize(String input, char separator) {
+        // Trim the same characters as String.trim.
+        int start = 0;
+        int end = input.length();
+        while ((start < end) && (input.charAt(start) <= ' ')) start++;
+        while ((end > start) && (input.charAt(end - 1) <= ' ')) end--;
+
+        // Find the first whitespace run that needs replacing.
+        int i = start;
+        while (i < end) {
+            char c = input.charAt(i);
+            if (isWhitespace(c) && ((c != separator) || isWhitespace(input.charAt(i + 1)))) {
+                break;
+            }
+            i++;
+        }
+        if (i == end) {
+            return input.substring(start, end);
+        }
+
+        // Copy, replacing whitespace runs. Trimming guarantees runs are followed by
+        // something other than whitespace.
+        StringBuilder normalized = new StringBuilder(end - start);
+        normalized.append(input, start, i);
+        while (i < end) {
+            char c = input.charAt(i++);
+            if (isWhitespace(c)) {
+                while (isWhitespace(input.charAt(i))) i++;
+                normalized.append(separator);
+            } else {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Same characters as the regular expression \s.
+     */
+    private static boolean isWhitespace(char c) {
+        return (c == ' ') || ((c >= '\t') && (c <= '\r'));
+    }
+
+    /**
+     * Same characters the regular expression '.' does not match.
+     */
+    private static boolean isLineTerminator(char c) {
+        return (c == '\n') || (c == '\r') || (c == '\u0085') || (c == '\u2028') || (c == '\u2029');
+    }
+
+    private static boolean isLetter(char c) {
+        return ((c >= 'A') && (c <= 'Z')) || ((c >= 'a') && (c <= 'z'));
+    }
+}
@@ -1,10 +1,9 @@
 package tracker.input;
 
 import tracker.data.StudentData;
-import tracker.data.StudentRecord;
 import tracker.notification.Notify;
+import tracker.output.ConsoleWriter;
 
-import java.util.List;
 import java.util.Scanner;
 
 public final class MainLoopHandler {
@@ -19,11 +18,16 @@ public final class MainLoopHandler {
 
     private final AddPointsHandler addPointsHandler = AddPointsHandler.getInstance();
     private final AddStudentHandler addStudentHandler = AddStudentHandler.getInstance();
+    private final ConsoleWriter console = ConsoleWriter.getInstance();
     private final FindHandler findHandler = FindHandler.getInstance();
+    private final InputParser inputParser = InputParser.getInstance();
     private final Notify notify = Notify.getInstance();
     private final StatisticsHandler statisticsHandler = StatisticsHandler.getInstance();
     private final StudentData studentData = StudentData.getInstance();
 
+    // Number of student ids listed before asking to continue, 0 to list all at once.
+    private int listPageSize = 0;
+
     enum Command {
         add_students("Add Students"),
         list("List Student Ids"),
@@ -40,6 +44,15 @@ public final class MainLoopHandler {
         }
     }
 
+    /**
+     * Set number of student ids the list command shows at a time.
+     *
+     * @param listPageSize Number of student ids per page, or 0 to list all at once.
+     */
+    public void setListPageSize(int listPageSize) {
+        this.listPageSize = listPageSize;
+    }
+
     /**
      * Do main command input loop.
      *
@@ -56,7 +69,7 @@ public final class MainLoopHandler {
                 // Add students.
                 case add_students -> addStudentHandler.doAddStudentLoop(scanner);
                 // List student ids.
-                case list -> displayStudentIdList();
+                case list -> displayStudentIdList(scanner);
                 // Find student.
                 case find -> findHandler.doFindLoop(scanner);
                 // Add points for students.
@@ -67,7 +80,7 @@ public final class MainLoopHandler {
                 case notify -> notify.sendNotifications();
                 // Exit program.
                 case exit -> {
-                    System.out.println("Bye!");
+                    console.println("Bye!");
                     exitLoop = true;
                 }
             }
@@ -85,14 +98,12 @@ public final class MainLoopHandler {
 
         // Enter command.
         while (true) {
-            String input = scanner.nextLine()
-                    .trim()
-                    .replaceAll("\\s+", " ")
-                    .replaceAll(" ", "_");
+            console.flush();
+            String input = inputParser.normalizeCommand(scanner.nextLine());
 
             // Show warning if nothing was entered.
             if (input.isEmpty()) {
-                System.out.println("No input");
+                console.println("No input");
                 continue;
             }
 
@@ -106,7 +117,7 @@ public final class MainLoopHandler {
 
             // Show warning if unknown command was entered.
             if (command == null) {
-                System.out.println("Enter 'exit' to exit the program.");
+                console.println("Enter 'exit' to exit the program.");
                 continue;
             }
 
@@ -118,17 +129,29 @@ public final class MainLoopHandler {
     }
 
     /**
-     * Display list of student ids.
+     * Display list of student ids in id order, a page at a time if a page size is set.
+     *
+     * @param scanner Scanner to use for input.
      */
-    void displayStudentIdList() {
-        List<StudentRecord> studentRecords = studentData.getStudents();
-        System.out.println("Students:");
-        if (studentRecords.isEmpty()) {
-            System.out.println("No students found.");
-        } else {
-            studentRecords.stream()
-                    .mapToInt(StudentRecord::studentId)
-                    .forEach(System.out::println);
+    void displayStudentIdList(Scanner scanner) {
+        console.println("Students:");
+        if (studentData.getNumberOfStudents() == 0) {
+            console.println("No students found.");
+            return;
+        }
+        if (listPageSize == 0) {
+            studentData.forEachId(console::println);
+            return;
+        }
+
+        int nextStudentId = studentData.forEachId(0, listPageSize, console::println);
+        while (nextStudentId >= 0) {
+            console.println("Press Enter to see more or type 'back' to return:");
+            console.flush();
+            if (inputParser.normalize(scanner.nextLine()).equalsIgnoreCase("back")) {
+                break;
+            }
+            nextStudentId = studentData.forEachId(nextStudentId, listPageSize, console::println);
         }
     }
 }
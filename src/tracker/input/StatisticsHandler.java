@@ -1,11 +1,12 @@
 package tracker.input;
 
+import tracker.data.CourseStatisticsRecord;
+import tracker.data.StudentData;
 import tracker.data.StudentPointsData;
-import tracker.data.StudentPointsRecord;
+import tracker.output.ConsoleWriter;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.*;
+import java.util.function.Consumer;
 
 public final class StatisticsHandler {
     private static final StatisticsHandler instance = new StatisticsHandler();
@@ -17,7 +18,33 @@ public final class StatisticsHandler {
         return instance;
     }
 
+    private final ConsoleWriter console = ConsoleWriter.getInstance();
+    private final InputParser inputParser = InputParser.getInstance();
+    private StudentData studentData = StudentData.getInstance();
     private StudentPointsData studentPointsData = StudentPointsData.getInstance();
+    private Source source = Source.HISTORY;
+
+    // Rendered statistics, and the data store versions they were rendered at.
+    // Course id << 32 | Top count, Rendered statistics.
+    private final Map<Long, String> renderedStatistics = new HashMap<>();
+    private long renderedStudentVersion = -1;
+    private long renderedStudentPointsVersion = -1;
+
+    // Separates a course name from a top count in normalized command input.
+    private static final String TOP_OPTION = "_top_";
+    // Joins course names in normalized command input.
+    private static final String AND_OPTION = "_and_";
+    // Total points possible for each course, indexed by course id. Index 0 is unused.
+    private static final int[] COURSE_POINTS = {0, 600, 400, 480, 550};
+
+    /**
+     * Set student data class to use.
+     *
+     * @param studentData Student data class to use.
+     */
+    public void setStudentData(StudentData studentData) {
+        this.studentData = studentData;
+    }
 
     /**
      * Set student points data class to use.
@@ -28,6 +55,30 @@ public final class StatisticsHandler {
         this.studentPointsData = studentPointsData;
     }
 
+    /**
+     * Sources of the student course points shown in course statistics.
+     */
+    public enum Source {
+        // Sum of the student points records of each student.
+        HISTORY,
+        // Running course point totals kept in the student records.
+        TOTALS
+    }
+
+    /**
+     * Set source of the student course points shown in course statistics. Totals are read
+     * once per enrolled student, while the history is read once per student points record.
+     * Both sources give the same points until something is deleted: totals keep the points
+     * of deleted student points records and leave out deleted students, while the history
+     * drops deleted student points records and still shows the records of deleted students.
+     *
+     * @param source Source to use.
+     */
+    public void setSource(Source source) {
+        this.source = source;
+        renderedStatistics.clear();
+    }
+
     enum Command {
         back("Go Back"),
         // Note we are taking advantage of the fact that the enum ordinal value matches
@@ -50,21 +101,27 @@ public final class StatisticsHandler {
      * @param scanner Scanner to use for input.
      */
     public void doStatisticsLoop(Scanner scanner) {
-        System.out.println("Type the name of a course to see details or 'back' to quit:");
+        console.println("Type the name of a course to see details or 'back' to quit:");
 
         // Display overall statistics.
         displayOverallStatistics();
 
         boolean exitLoop = false;
+        int[] topCount = new int[1];
+        EnumSet<Command> courses = EnumSet.noneOf(Command.class);
         do {
             // Enter command.
-            Command command = enterCommand(scanner);
+            Command command = enterCommand(scanner, topCount, courses);
 
             // Handle command.
             switch (command) {
-                // Display course statistics.
+                // Display course statistics, or the students enrolled in several courses.
                 case java, dsa, databases, spring -> {
-                    displayCourseStatistics(command);
+                    if (courses.size() > 1) {
+                        displayEnrolledStudents(courses);
+                    } else {
+                        displayCourseStatistics(command, topCount[0]);
+                    }
                 }
                 // Exit statistics.
                 case back -> {
@@ -75,38 +132,77 @@ public final class StatisticsHandler {
     }
 
     /**
-     * Enter command from user.
+     * Enter command from user. A course name may be followed by "top" and a number of
+     * students, such as "java top 20", to display only the students with the most points.
      *
-     * @param scanner Scanner to use for input.
+     * @param scanner  Scanner to use for input.
+     * @param topCount Updated with the number of top students to display, or 0 to display
+     *                 all students.
      * @return Command entered by user. Only valid commands will be returned.
      */
-    Command enterCommand(Scanner scanner) {
+    Command enterCommand(Scanner scanner, int[] topCount) {
+        return enterCommand(scanner, topCount, EnumSet.noneOf(Command.class));
+    }
+
+    /**
+     * Enter command from user. A course name may be followed by "top" and a number of
+     * students, such as "java top 20", to display only the students with the most points.
+     * Several course names may be joined by "and", such as "java and dsa", to display the
+     * students enrolled in all of them.
+     *
+     * @param scanner  Scanner to use for input.
+     * @param topCount Updated with the number of top students to display, or 0 to display
+     *                 all students.
+     * @param courses  Updated with the courses entered.
+     * @return Command entered by user, the first course if several were entered. Only valid
+     * commands will be returned.
+     */
+    Command enterCommand(Scanner scanner, int[] topCount, EnumSet<Command> courses) {
         Command command = null;
 
         // Enter command.
         while (true) {
-            String input = scanner.nextLine()
-                    .trim()
-                    .replaceAll("\\s+", " ")
-                    .replaceAll(" ", "_");
+            console.flush();
+            String input = inputParser.normalizeCommand(scanner.nextLine());
+            topCount[0] = 0;
 
             // Show warning if nothing was entered.
             if (input.isEmpty()) {
-                System.out.println("No input");
+                console.println("No input");
                 continue;
             }
 
-            // Check if known command was entered.
-            for (Command option : Command.values()) {
-                if (option.name().equalsIgnoreCase(input)) {
-                    command = option;
+            // Split off a top count.
+            int top = input.toLowerCase(Locale.ROOT).indexOf(TOP_OPTION);
+            if (top > 0) {
+                if ((inputParser.parseInts(input.substring(top + TOP_OPTION.length()), false, topCount) != 1)
+                        || (topCount[0] < 1)) {
+                    console.println("Incorrect number of students.");
+                    continue;
+                }
+                input = input.substring(0, top);
+            }
+
+            // Check if known commands were entered.
+            String[] names = input.toLowerCase(Locale.ROOT).split(AND_OPTION, -1);
+            courses.clear();
+            for (String name : names) {
+                command = findCommand(name);
+                if (command == null) {
                     break;
                 }
+                courses.add(command);
+            }
+            if (command != null) {
+                command = courses.iterator().next();
             }
 
-            // Show warning if unknown command was entered.
-            if (command == null) {
-                System.out.println("Unknown course.");
+            // Show warning if unknown command was entered. Only single courses take a top count.
+            boolean joined = names.length > 1;
+            if ((command == null) || (joined && courses.contains(Command.back))
+                    || ((topCount[0] > 0) && (joined || (command == Command.back)))) {
+                console.println("Unknown course.");
+                command = null;
                 continue;
             }
 
@@ -117,22 +213,33 @@ public final class StatisticsHandler {
         return command;
     }
 
+    private static Command findCommand(String name) {
+        for (Command option : Command.values()) {
+            if (option.name().equals(name)) {
+                return option;
+            }
+        }
+        return null;
+    }
+
     /**
      * Display overall statistics.
      */
     void displayOverallStatistics() {
+        console.print(renderStatistics(Command.back, 0, this::renderOverallStatistics));
+    }
+
+    private void renderOverallStatistics(ConsoleWriter out) {
         // Calculate overall statistics.
-        List<Set<Integer>> enrollment = new ArrayList<>();
-        List<Integer> activity = new ArrayList<>();
-        List<List<Integer>> grades = new ArrayList<>();
-        calculateOverallStatistics(enrollment, activity, grades);
+        List<CourseStatisticsRecord> courseStatistics = new ArrayList<>();
+        calculateOverallStatistics(courseStatistics);
 
-        // Display overall statistics.
+        // Render overall statistics.
 
         int highestEnrollmentCount = 0;
         int lowestEnrollmentCount = Integer.MAX_VALUE;
-        for (Set<Integer> courseStudentIds : enrollment) {
-            int enrollmentCount = courseStudentIds.size();
+        for (CourseStatisticsRecord courseStatisticsRecord : courseStatistics) {
+            int enrollmentCount = courseStatisticsRecord.enrollment();
             if (enrollmentCount > highestEnrollmentCount) highestEnrollmentCount = enrollmentCount;
             if (enrollmentCount < lowestEnrollmentCount) lowestEnrollmentCount = enrollmentCount;
         }
@@ -140,7 +247,7 @@ public final class StatisticsHandler {
         StringJoiner mostPopular = new StringJoiner(", ");
         StringJoiner leastPopular = new StringJoiner(", ");
         for (int i = 1; i < 5; i++) {
-            int enrollmentCount = enrollment.get(i).size();
+            int enrollmentCount = courseStatistics.get(i).enrollment();
             if (enrollmentCount > 0) {
                 if (enrollmentCount == highestEnrollmentCount) {
                     mostPopular.add(Command.values()[i].label);
@@ -150,12 +257,13 @@ public final class StatisticsHandler {
             }
         }
 
-        System.out.printf("Most popular: %s%n", mostPopular.toString().isEmpty() ? "n/a" : mostPopular);
-        System.out.printf("Least popular: %s%n", leastPopular.toString().isEmpty() ? "n/a" : leastPopular);
+        out.printf("Most popular: %s%n", mostPopular.toString().isEmpty() ? "n/a" : mostPopular);
+        out.printf("Least popular: %s%n", leastPopular.toString().isEmpty() ? "n/a" : leastPopular);
 
         int highestActivityCount = 0;
         int lowestActivityCount = Integer.MAX_VALUE;
-        for (Integer count : activity) {
+        for (CourseStatisticsRecord courseStatisticsRecord : courseStatistics) {
+            int count = courseStatisticsRecord.activity();
             if (count > highestActivityCount) highestActivityCount = count;
             if (count < lowestActivityCount) lowestActivityCount = count;
         }
@@ -163,7 +271,7 @@ public final class StatisticsHandler {
         StringJoiner highestActivity = new StringJoiner(", ");
         StringJoiner lowestActivity = new StringJoiner(", ");
         for (int i = 1; i < 5; i++) {
-            int count = activity.get(i);
+            int count = courseStatistics.get(i).activity();
             if (count > 0) {
                 if (count == highestActivityCount) {
                     highestActivity.add(Command.values()[i].label);
@@ -173,16 +281,13 @@ public final class StatisticsHandler {
             }
         }
 
-        System.out.printf("Highest activity: %s%n", highestActivity.toString().isEmpty() ? "n/a" : highestActivity);
-        System.out.printf("Lowest activity: %s%n", lowestActivity.toString().isEmpty() ? "n/a" : lowestActivity);
+        out.printf("Highest activity: %s%n", highestActivity.toString().isEmpty() ? "n/a" : highestActivity);
+        out.printf("Lowest activity: %s%n", lowestActivity.toString().isEmpty() ? "n/a" : lowestActivity);
 
         double highestAverageGrade = 0.0;
         double lowestAverageGrade = Double.MAX_VALUE;
-        for (List<Integer> courseGrades : grades) {
-            double averageGrade = courseGrades.stream()
-                    .mapToInt(g -> g)
-                    .average()
-                    .orElse(0.0);
+        for (CourseStatisticsRecord courseStatisticsRecord : courseStatistics) {
+            double averageGrade = courseStatisticsRecord.averageGrade();
             if (averageGrade > highestAverageGrade) highestAverageGrade = averageGrade;
             if (averageGrade < lowestAverageGrade) lowestAverageGrade = averageGrade;
         }
@@ -190,12 +295,9 @@ public final class StatisticsHandler {
         StringJoiner easiestCourses = new StringJoiner(", ");
         StringJoiner hardestCourses = new StringJoiner(", ");
         for (int i = 1; i < 5; i++) {
-            List<Integer> courseGrades = grades.get(i);
-            if (courseGrades.size() > 0) {
-                double averageGrade = courseGrades.stream()
-                        .mapToInt(g -> g)
-                        .average()
-                        .orElse(0.0);
+            CourseStatisticsRecord courseStatisticsRecord = courseStatistics.get(i);
+            if (courseStatisticsRecord.activity() > 0) {
+                double averageGrade = courseStatisticsRecord.averageGrade();
                 if (averageGrade == highestAverageGrade) {
                     easiestCourses.add(Command.values()[i].label);
                 } else if (averageGrade == lowestAverageGrade) {
@@ -204,70 +306,106 @@ public final class StatisticsHandler {
             }
         }
 
-        System.out.printf("Easiest course: %s%n", easiestCourses.toString().isEmpty() ? "n/a" : easiestCourses);
-        System.out.printf("Hardest course: %s%n", hardestCourses.toString().isEmpty() ? "n/a" : hardestCourses);
+        out.printf("Easiest course: %s%n", easiestCourses.toString().isEmpty() ? "n/a" : easiestCourses);
+        out.printf("Hardest course: %s%n", hardestCourses.toString().isEmpty() ? "n/a" : hardestCourses);
     }
 
     /**
      * Calculate overall statistics.
      *
-     * @param enrollment Updated with student points enrollment information.
-     * @param activity   Updated with student points activity information.
-     * @param grades     Updated with student points grade information.
+     * @param courseStatistics Updated with course statistics records indexed by course id.
+     *                         Index 0 holds an empty record.
      */
-    void calculateOverallStatistics(List<Set<Integer>> enrollment, List<Integer> activity, List<List<Integer>> grades) {
-        // Will contain sets of student ids.
-        for (int i = 0; i < 5; i++) {
-            enrollment.add(new HashSet<>());
+    void calculateOverallStatistics(List<CourseStatisticsRecord> courseStatistics) {
+        // Course statistics are maintained by the data store as student points are added
+        // so this only reads one record per course.
+        courseStatistics.add(new CourseStatisticsRecord(0, 0, 0, 0));
+        for (int i = 1; i < 5; i++) {
+            courseStatistics.add(studentPointsData.getCourseStatistics(i));
         }
+    }
 
-        // Will contain activity counts.
-        for (int i = 0; i < 5; i++) {
-            activity.add(0);
-        }
+    /**
+     * Display course statistics
+     *
+     * @param command  Command indicating course to display.
+     * @param topCount Number of students with the most points to display, or 0 to display
+     *                 all students.
+     */
+    void displayCourseStatistics(Command command, int topCount) {
+        console.print(renderStatistics(command, topCount, out -> renderCourseStatistics(command, topCount, out)));
+    }
 
-        // Will contain lists of grades
-        for (int i = 0; i < 5; i++) {
-            grades.add(new ArrayList<>());
+    /**
+     * Render course statistics.
+     *
+     * @param command  Command indicating course to render.
+     * @param topCount Number of students with the most points to render, or 0 to render
+     *                 all students.
+     * @param out      Writer to render to.
+     */
+    void renderCourseStatistics(Command command, int topCount, ConsoleWriter out) {
+        TreeSet<CourseStudent> courseStudents = new TreeSet<>();
+
+        // Calculate course statistics.
+        calculateCourseStatistics(command, topCount, courseStudents);
+
+        out.println(command.label);
+        out.print("id", 7).print(" ").print("points", 6).print(" ").println("completed");
+        courseStudents.forEach(s -> out.print(s.studentId, 7).print(" ").print(s.points, 6).print(" ")
+                .printPercent(s.completed * 10L).println());
+    }
+
+    /**
+     * Get rendered statistics. Rendered statistics are kept until the data stores change,
+     * so showing the same statistics again costs nothing until new points are added.
+     *
+     * @param command  Command indicating course of the statistics, back for overall statistics.
+     * @param topCount Number of top students of the statistics.
+     * @param renderer Renders the statistics if they are not kept.
+     * @return Rendered statistics.
+     */
+    String renderStatistics(Command command, int topCount, Consumer<ConsoleWriter> renderer) {
+        // Versions are read before rendering, so changes made while rendering are seen next time.
+        long studentVersion = studentData.getVersion();
+        long studentPointsVersion = studentPointsData.getVersion();
+        if ((studentVersion != renderedStudentVersion) || (studentPointsVersion != renderedStudentPointsVersion)) {
+            renderedStatistics.clear();
+            renderedStudentVersion = studentVersion;
+            renderedStudentPointsVersion = studentPointsVersion;
         }
 
-        // Summarize student points records.
-        List<StudentPointsRecord> studentPointsRecords = studentPointsData.getStudentPoints();
-        for (StudentPointsRecord studentPointsRecord : studentPointsRecords) {
-            // Update enrollment.
-            if (studentPointsRecord.course1Points() > 0) enrollment.get(1).add(studentPointsRecord.studentId());
-            if (studentPointsRecord.course2Points() > 0) enrollment.get(2).add(studentPointsRecord.studentId());
-            if (studentPointsRecord.course3Points() > 0) enrollment.get(3).add(studentPointsRecord.studentId());
-            if (studentPointsRecord.course4Points() > 0) enrollment.get(4).add(studentPointsRecord.studentId());
-
-            // Update activity.
-            if (studentPointsRecord.course1Points() > 0) activity.set(1, activity.get(1) + 1);
-            if (studentPointsRecord.course2Points() > 0) activity.set(2, activity.get(2) + 1);
-            if (studentPointsRecord.course3Points() > 0) activity.set(3, activity.get(3) + 1);
-            if (studentPointsRecord.course4Points() > 0) activity.set(4, activity.get(4) + 1);
-
-            // Update grades.
-            if (studentPointsRecord.course1Points() > 0) grades.get(1).add(studentPointsRecord.course1Points());
-            if (studentPointsRecord.course2Points() > 0) grades.get(2).add(studentPointsRecord.course2Points());
-            if (studentPointsRecord.course3Points() > 0) grades.get(3).add(studentPointsRecord.course3Points());
-            if (studentPointsRecord.course4Points() > 0) grades.get(4).add(studentPointsRecord.course4Points());
+        long key = (long) command.ordinal() << 32 | topCount;
+        String rendered = renderedStatistics.get(key);
+        if (rendered == null) {
+            ConsoleWriter out = ConsoleWriter.textWriter();
+            renderer.accept(out);
+            rendered = out.text();
+            renderedStatistics.put(key, rendered);
         }
+        return rendered;
     }
 
     /**
-     * Display course statistics
+     * Display the ids of the students enrolled in every one of several courses, in id order.
      *
-     * @param command Command indicating course to display.
+     * @param courses Courses to display.
      */
-    void displayCourseStatistics(Command command) {
-        TreeSet<CourseStudent> courseStudents = new TreeSet<>();
-
-        // Calculate course statistics.
-        calculateCourseStatistics(command, courseStudents);
+    void displayEnrolledStudents(Set<Command> courses) {
+        StringJoiner label = new StringJoiner(" and ");
+        int[] courseIds = new int[courses.size()];
+        int i = 0;
+        for (Command course : courses) {
+            label.add(course.label);
+            courseIds[i++] = course.ordinal();
+        }
+        BitSet enrolledStudents = studentPointsData.getEnrolledStudents(courseIds);
 
-        System.out.println(command.label);
-        System.out.printf("%-7s %-6s %s%n", "id", "points", "completed");
-        courseStudents.forEach(s -> System.out.printf("%-7d %-6d %.1f%%%n", s.studentId, s.points, s.completed));
+        console.println(label.toString());
+        console.print("Students enrolled: ").println(enrolledStudents.cardinality());
+        for (int studentId = enrolledStudents.nextSetBit(0); studentId >= 0; studentId = enrolledStudents.nextSetBit(studentId + 1)) {
+            console.println(studentId);
+        }
     }
 
     /**
@@ -277,32 +415,64 @@ public final class StatisticsHandler {
      * @param courseStudents Updated with course student information.
      */
     void calculateCourseStatistics(Command command, TreeSet<CourseStudent> courseStudents) {
-        // Set total points possible for each course.
-        final BigDecimal[] coursePoints = new BigDecimal[5];
-        coursePoints[1] = BigDecimal.valueOf(600);
-        coursePoints[2] = BigDecimal.valueOf(400);
-        coursePoints[3] = BigDecimal.valueOf(480);
-        coursePoints[4] = BigDecimal.valueOf(550);
+        calculateCourseStatistics(command, 0, courseStudents);
+    }
+
+    /**
+     * Calculate course statistics for the students with the most points. The top students
+     * are picked with a min-heap holding at most topCount students, in O(n log topCount),
+     * and course student information is only built for them.
+     *
+     * @param command        Command indicating course to process.
+     * @param topCount       Number of students with the most points to include, or 0 to
+     *                       include all students.
+     * @param courseStudents Updated with course student information.
+     */
+    void calculateCourseStatistics(Command command, int topCount, TreeSet<CourseStudent> courseStudents) {
+        int coursePoints = COURSE_POINTS[command.ordinal()];
 
         // Total student points for course.
         // Student id, Total points.
         HashMap<Integer, Integer> studentPoints = new HashMap<>();
-        List<StudentPointsRecord> studentPointsRecords = studentPointsData.getStudentPointsByCourseId(command.ordinal());
-        for (StudentPointsRecord studentPointsRecord : studentPointsRecords) {
-            int pointsToAdd = switch (command.ordinal()) {
-                case 1 -> studentPointsRecord.course1Points();
-                case 2 -> studentPointsRecord.course2Points();
-                case 3 -> studentPointsRecord.course3Points();
-                case 4 -> studentPointsRecord.course4Points();
-                default -> throw new IllegalStateException("Unexpected value: " + command.ordinal());
-            };
-
-            int studentId = studentPointsRecord.studentId();
-            if (studentPoints.containsKey(studentId)) {
-                pointsToAdd += studentPoints.get(studentId);
+        if (source == Source.TOTALS) {
+            // Read the running total of each enrolled student.
+            BitSet enrolledStudents = studentPointsData.getEnrolledStudents(command.ordinal());
+            for (int studentId = enrolledStudents.nextSetBit(0); studentId >= 0; studentId = enrolledStudents.nextSetBit(studentId + 1)) {
+                int points = studentData.getCoursePoints(studentId, command.ordinal());
+                if (points > 0) {
+                    studentPoints.put(studentId, Math.min(points, coursePoints));
+                }
+            }
+        } else {
+            studentPointsData.forEachStudentPointsByCourseId(command.ordinal(), studentPointsRecord -> {
+                int pointsToAdd = studentPointsRecord.coursePoints(command.ordinal());
+
+                int studentId = studentPointsRecord.studentId();
+                if (studentPoints.containsKey(studentId)) {
+                    pointsToAdd += studentPoints.get(studentId);
+                }
+                pointsToAdd = Math.min(pointsToAdd, coursePoints);
+                studentPoints.put(studentId, pointsToAdd);
+            });
+        }
+
+        if (topCount > 0) {
+            // Keep the top students in a min-heap, the lowest ranked at the head. Students
+            // are packed into longs that sort the same way as course students.
+            PriorityQueue<Long> topStudents = new PriorityQueue<>(Math.min(topCount, studentPoints.size()) + 1);
+            for (Map.Entry<Integer, Integer> entry : studentPoints.entrySet()) {
+                long rank = rank(entry.getKey(), entry.getValue());
+                if (topStudents.size() < topCount) {
+                    topStudents.add(rank);
+                } else if (rank > topStudents.peek()) {
+                    topStudents.poll();
+                    topStudents.add(rank);
+                }
+            }
+            studentPoints.clear();
+            for (long rank : topStudents) {
+                studentPoints.put(Integer.MAX_VALUE - (int) rank, (int) (rank >>> 32));
             }
-            pointsToAdd = Math.min(pointsToAdd, coursePoints[command.ordinal()].intValue());
-            studentPoints.put(studentId, pointsToAdd);
         }
 
         // Calculate student completion percentage and load output set.
@@ -310,18 +480,42 @@ public final class StatisticsHandler {
             var courseStudent = new CourseStudent(
                     entry.getKey(),
                     entry.getValue(),
-                    BigDecimal.valueOf(100L * entry.getValue()).divide(coursePoints[command.ordinal()], RoundingMode.HALF_UP)
+                    completionPercent(entry.getValue(), coursePoints)
             );
             courseStudents.add(courseStudent);
         }
     }
 
+    /**
+     * Calculate a completion percentage rounded half up to a whole percent, with integer
+     * arithmetic. Same result as
+     * {@code BigDecimal.valueOf(100L * points).divide(BigDecimal.valueOf(coursePoints), RoundingMode.HALF_UP)}
+     * for points that are not negative: 100 * points / coursePoints + 1/2, with both
+     * sides doubled to stay in integers.
+     *
+     * @param points       Student points in the course.
+     * @param coursePoints Total points possible in the course.
+     * @return Completion percentage.
+     */
+    static int completionPercent(int points, int coursePoints) {
+        return (int) ((200L * points + coursePoints) / (2L * coursePoints));
+    }
+
+    /**
+     * Pack a student into a long which is higher for students ranked higher: more points,
+     * then a lower student id.
+     */
+    private static long rank(int studentId, int points) {
+        return ((long) points << 32) | (Integer.MAX_VALUE - studentId);
+    }
+
     private class CourseStudent implements Comparable<CourseStudent> {
         public final int studentId;
         public final int points;
-        public final BigDecimal completed;
+        // Completion percentage.
+        public final int completed;
 
-        public CourseStudent(int studentId, int points, BigDecimal completed) {
+        public CourseStudent(int studentId, int points, int completed) {
             this.studentId = studentId;
             this.points = points;
             this.completed = completed;
@@ -0,0 +1,17 @@
+package tracker.notification;
+
+import tracker.output.ConsoleWriter;
+
+/**
+ * Notification sender which displays emails on the console. Emails may be sent from
+ * background threads, so each is printed in one piece at the next flush, see
+ * {@link ConsoleWriter#printLater(String)}.
+ */
+public final class ConsoleNotificationSender implements NotificationSender {
+    private final ConsoleWriter console = ConsoleWriter.getInstance();
+
+    @Override
+    public void send(String email) {
+        console.printLater(email + System.lineSeparator());
+    }
+}
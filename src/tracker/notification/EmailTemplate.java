@@ -0,0 +1,117 @@
+package tracker.notification;
+
+import tracker.data.StudentRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Email template parsed once into literal text and placeholder segments, so rendering
+ * appends each segment to a buffer without searching the text or building intermediate
+ * strings.<br>
+ * Placeholders are written as %NAME%, see {@link Placeholder}. Text between percent signs
+ * that is not a placeholder name is kept as it is.
+ */
+public final class EmailTemplate {
+    /**
+     * Values a template can hold.
+     */
+    public enum Placeholder {
+        EMAIL_ADDRESS,
+        FIRST_NAME,
+        LAST_NAME,
+        // First name, a space and last name.
+        FULL_USER_NAME,
+        COURSE_NAME
+    }
+
+    // Segments in order. A segment is literal text when its placeholder is null.
+    private final Placeholder[] placeholders;
+    private final String[] literals;
+
+    private EmailTemplate(Placeholder[] placeholders, String[] literals) {
+        this.placeholders = placeholders;
+        this.literals = literals;
+    }
+
+    /**
+     * Parse a template.
+     *
+     * @param template Template text.
+     * @return Parsed template.
+     */
+    public static EmailTemplate parse(String template) {
+        List<Placeholder> placeholders = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            int end = (c == '%') ? template.indexOf('%', i + 1) : -1;
+            Placeholder placeholder = (end < 0) ? null : placeholder(template.substring(i + 1, end));
+            if (placeholder == null) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            if (literal.length() > 0) {
+                placeholders.add(null);
+                literals.add(literal.toString());
+                literal.setLength(0);
+            }
+            placeholders.add(placeholder);
+            literals.add(null);
+            i = end + 1;
+        }
+        if (literal.length() > 0) {
+            placeholders.add(null);
+            literals.add(literal.toString());
+        }
+        return new EmailTemplate(placeholders.toArray(new Placeholder[0]), literals.toArray(new String[0]));
+    }
+
+    /**
+     * Render the template for a student and course.
+     *
+     * @param studentRecord Student record which provides information for email.
+     * @param courseName    Course name which provides information for email.
+     * @param email         Buffer to append the email text to.
+     */
+    public void render(StudentRecord studentRecord, String courseName, StringBuilder email) {
+        for (int i = 0; i < placeholders.length; i++) {
+            if (placeholders[i] == null) {
+                email.append(literals[i]);
+                continue;
+            }
+            switch (placeholders[i]) {
+                case EMAIL_ADDRESS -> email.append(studentRecord.email());
+                case FIRST_NAME -> email.append(studentRecord.firstName());
+                case LAST_NAME -> email.append(studentRecord.lastName());
+                case FULL_USER_NAME -> email.append(studentRecord.firstName()).append(' ').append(studentRecord.lastName());
+                case COURSE_NAME -> email.append(courseName);
+            }
+        }
+    }
+
+    /**
+     * Render the template for a student and course into a new string.
+     *
+     * @param studentRecord Student record which provides information for email.
+     * @param courseName    Course name which provides information for email.
+     * @return Email text.
+     */
+    public String render(StudentRecord studentRecord, String courseName) {
+        StringBuilder email = new StringBuilder();
+        render(studentRecord, courseName, email);
+        return email.toString();
+    }
+
+    private static Placeholder placeholder(String name) {
+        for (Placeholder placeholder : Placeholder.values()) {
+            if (placeholder.name().equals(name)) {
+                return placeholder;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,27 @@
+package tracker.notification;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Notification sender which appends emails to a file, each followed by a blank line.
+ */
+public final class FileNotificationSender implements NotificationSender {
+    private final Path file;
+
+    /**
+     * @param file File to append emails to. The file is created if it does not exist.
+     */
+    public FileNotificationSender(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void send(String email) throws IOException {
+        Files.writeString(file, email + System.lineSeparator() + System.lineSeparator(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,25 @@
+package tracker.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Notification sender which keeps emails in memory.
+ */
+public final class InMemoryNotificationSender implements NotificationSender {
+    private final List<String> emails = new ArrayList<>();
+
+    @Override
+    public synchronized void send(String email) {
+        emails.add(email);
+    }
+
+    /**
+     * Get emails sent so far.
+     *
+     * @return List of emails in the order they were sent.
+     */
+    public synchronized List<String> getEmails() {
+        return new ArrayList<>(emails);
+    }
+}
@@ -0,0 +1,175 @@
+package tracker.notification;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends course completion notifications in the background. Completions are put on a
+ * bounded queue as they happen and worker threads render and send them through the
+ * notify sender, so data entry does not wait for notifications to go out.<br>
+ * The queue never blocks the caller. When it is full the completion is not queued, but the
+ * course stays flagged for notification and is sent by the next notify command. Workers
+ * and the notify command both move the notification status from 1 to 2 before sending, so
+ * each notification is sent once.<br>
+ * The dispatcher is off until started.
+ */
+public final class NotificationDispatcher {
+    private static final NotificationDispatcher instance = new NotificationDispatcher();
+
+    private NotificationDispatcher() {
+    }
+
+    public static NotificationDispatcher getInstance() {
+        return instance;
+    }
+
+    // Queue entry telling a worker to stop.
+    private static final CompletionEvent STOP = new CompletionEvent(0, 0);
+
+    private Notify notify = Notify.getInstance();
+
+    private volatile BlockingQueue<CompletionEvent> queue = null;
+    private ExecutorService workers = null;
+    private int workerCount = 0;
+    private final AtomicInteger droppedCount = new AtomicInteger();
+
+    /**
+     * Set notify class to use.
+     *
+     * @param notify Notify class to use.
+     */
+    public void setNotify(Notify notify) {
+        this.notify = notify;
+    }
+
+    /**
+     * Start the worker threads.
+     *
+     * @param workerCount   Number of worker threads.
+     * @param queueCapacity Number of completions that can wait to be sent.
+     */
+    public synchronized void start(int workerCount, int queueCapacity) {
+        if (queue != null) {
+            throw new IllegalStateException("Notification dispatcher already started");
+        }
+        var threadNumber = new AtomicInteger();
+        BlockingQueue<CompletionEvent> startedQueue = new ArrayBlockingQueue<>(queueCapacity);
+        workers = Executors.newFixedThreadPool(workerCount, task -> {
+            var thread = new Thread(task, "notification-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(() -> work(startedQueue));
+        }
+        this.workerCount = workerCount;
+        queue = startedQueue;
+    }
+
+    /**
+     * Stop the worker threads after they have sent every queued completion.
+     */
+    public synchronized void stop() {
+        BlockingQueue<CompletionEvent> stoppedQueue = queue;
+        if (stoppedQueue == null) {
+            return;
+        }
+        queue = null;
+        boolean interrupted = false;
+        for (int i = 0; i < workerCount; i++) {
+            while (true) {
+                try {
+                    stoppedQueue.put(STOP);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        workers.shutdown();
+        while (true) {
+            try {
+                workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        workers = null;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Check if the worker threads are running.
+     *
+     * @return true if completions can be submitted.
+     */
+    public boolean isRunning() {
+        return queue != null;
+    }
+
+    /**
+     * Queue a course completion for notification. The course must already be flagged for
+     * notification.
+     *
+     * @param studentId Student id who completed the course.
+     * @param courseId  Completed course id.
+     * @return true if the completion was queued. It is not queued when the dispatcher is
+     * not running or the queue is full, and is then left for the notify command.
+     */
+    public boolean submit(int studentId, int courseId) {
+        BlockingQueue<CompletionEvent> runningQueue = queue;
+        if (runningQueue == null) {
+            return false;
+        }
+        if (!runningQueue.offer(new CompletionEvent(studentId, courseId))) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get number of completions not queued because the queue was full.
+     *
+     * @return Number of dropped completions.
+     */
+    public int getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private void work(BlockingQueue<CompletionEvent> workQueue) {
+        while (true) {
+            CompletionEvent event;
+            try {
+                event = workQueue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (event == STOP) {
+                return;
+            }
+            // Emails sent to the console are shown at the next prompt.
+            notify.sendNotification(event.studentId, event.courseId);
+        }
+    }
+
+    /**
+     * Course completion waiting to be sent.
+     */
+    private static final class CompletionEvent {
+        final int studentId;
+        final int courseId;
+
+        CompletionEvent(int studentId, int courseId) {
+            this.studentId = studentId;
+            this.courseId = courseId;
+        }
+    }
+}
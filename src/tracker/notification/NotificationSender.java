@@ -0,0 +1,18 @@
+package tracker.notification;
+
+import java.io.IOException;
+
+/**
+ * Delivers rendered notification emails. Senders may be called from several threads at
+ * once.
+ */
+@FunctionalInterface
+public interface NotificationSender {
+    /**
+     * Send a notification email.
+     *
+     * @param email Rendered email text.
+     * @throws IOException If the email could not be delivered.
+     */
+    void send(String email) throws IOException;
+}
@@ -2,25 +2,44 @@ package tracker.notification;
 
 import tracker.data.StudentData;
 import tracker.data.StudentRecord;
+import tracker.output.ConsoleWriter;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
 
 public final class Notify {
     private static final Notify instance = new Notify();
 
     private Notify() {
+        courseNames[1] = "Java";
+        courseNames[2] = "DSA";
+        courseNames[3] = "Databases";
+        courseNames[4] = "Spring";
+        for (int courseId = 1; courseId < 5; courseId++) {
+            emailTemplates[courseId] = defaultEmailTemplate;
+        }
     }
 
     public static Notify getInstance() {
         return instance;
     }
 
+    private final ConsoleWriter console = ConsoleWriter.getInstance();
     private StudentData studentData = StudentData.getInstance();
+    private NotificationSender notificationSender = new ConsoleNotificationSender();
 
-    private final String emailTemplate = """
+    private final EmailTemplate defaultEmailTemplate = EmailTemplate.parse("""
             To: %EMAIL_ADDRESS%
             Re: Your Learning Progress
-            Hello, %FULL_USER_NAME%! You have accomplished our %COURSE_NAME% course!""";
+            Hello, %FULL_USER_NAME%! You have accomplished our %COURSE_NAME% course!""");
+    private final String[] courseNames = new String[5];
+    // Email template of each course, indexed by course id. Index 0 is unused.
+    private final EmailTemplate[] emailTemplates = new EmailTemplate[5];
+    // Email buffer of each sending thread.
+    private final ThreadLocal<StringBuilder> emailBuffer = ThreadLocal.withInitial(StringBuilder::new);
 
     /**
      * Set student data class to use.
@@ -31,61 +50,108 @@ public final class Notify {
         this.studentData = studentData;
     }
 
+    /**
+     * Set notification sender to use.
+     *
+     * @param notificationSender Notification sender to use.
+     */
+    public void setNotificationSender(NotificationSender notificationSender) {
+        this.notificationSender = notificationSender;
+    }
+
+    /**
+     * Load course email templates from a directory. The template of a course is read from
+     * a file named after the course in lower case, for example java.txt. Courses without a
+     * file use the default template. A line terminator at the end of a file is dropped.
+     *
+     * @param directory Directory holding the template files.
+     * @throws IOException If a template file could not be read.
+     */
+    public void loadEmailTemplates(Path directory) throws IOException {
+        var loaded = new EmailTemplate[5];
+        for (int courseId = 1; courseId < 5; courseId++) {
+            Path file = directory.resolve(courseNames[courseId].toLowerCase(Locale.ROOT) + ".txt");
+            loaded[courseId] = Files.exists(file)
+                    ? EmailTemplate.parse(stripLineTerminator(Files.readString(file, StandardCharsets.UTF_8)))
+                    : defaultEmailTemplate;
+        }
+        System.arraycopy(loaded, 1, emailTemplates, 1, 4);
+    }
+
     /**
      * "Send" notifications to all students with completed courses who have not yet received
-     * a notification for the course. Sending at the moment means displaying email text
-     * to the console.
+     * a notification for the course. Sending by default means displaying email text to the
+     * console.<br>
+     * Notifications already taken by the notification dispatcher are skipped, see
+     * {@link #sendNotification(int, int)}.
      */
     public void sendNotifications() {
-        // Find students with completed courses needing notification.
+        // Visit the completed courses needing notification.
         // Send emails to them and update notification status.
-        int notificationCount = 0;
-        List<StudentRecord> studentRecords = studentData.getStudents();
-        for (StudentRecord studentRecord : studentRecords) {
-            int studentId = studentRecord.studentId();
-            if (studentRecord.course1NotificationStatus() == 1) {
-                sendEmail(studentRecord, 1);
-                studentData.setCourseNotificationStatus(studentId, 1, 2);
-                notificationCount++;
-            }
-            if (studentRecord.course2NotificationStatus() == 1) {
-                sendEmail(studentRecord, 2);
-                studentData.setCourseNotificationStatus(studentId, 2, 2);
-                notificationCount++;
-            }
-            if (studentRecord.course3NotificationStatus() == 1) {
-                sendEmail(studentRecord, 3);
-                studentData.setCourseNotificationStatus(studentId, 3, 2);
-                notificationCount++;
-            }
-            if (studentRecord.course4NotificationStatus() == 1) {
-                sendEmail(studentRecord, 4);
-                studentData.setCourseNotificationStatus(studentId, 4, 2);
-                notificationCount++;
+        int[] notificationCount = {0};
+        studentData.forEachPendingNotification((studentId, courseId) -> {
+            if (sendNotification(studentId, courseId)) {
+                notificationCount[0]++;
             }
-        }
+        });
+
+        // Emails are held until printed, so show them before the total.
+        console.printPending();
+        console.printf("Total %d students have been notified.%n", notificationCount[0]);
+    }
 
-        System.out.printf("Total %d students have been notified.%n", notificationCount);
+    /**
+     * Send the notification for a completed course if it still needs sending. The
+     * notification status is moved from 1 to 2 before sending, so when several threads try
+     * to send the same notification only one of them does. The status goes back to 1 if
+     * the email could not be delivered, so it can be sent later.
+     *
+     * @param studentId Student id to notify.
+     * @param courseId  Completed course id.
+     * @return true if the notification was sent.
+     */
+    boolean sendNotification(int studentId, int courseId) {
+        return studentData.getStudent(studentId)
+                .map(studentRecord -> sendNotification(studentRecord, courseId))
+                .orElse(false);
+    }
+
+    private boolean sendNotification(StudentRecord studentRecord, int courseId) {
+        int studentId = studentRecord.studentId();
+        if (!studentData.compareAndSetCourseNotificationStatus(studentId, courseId, 1, 2)) {
+            return false;
+        }
+        try {
+            notificationSender.send(renderEmail(studentRecord, courseId));
+            return true;
+        } catch (IOException e) {
+            console.printLater(String.format("Unable to send notification: %s%n", e.getMessage()));
+            studentData.compareAndSetCourseNotificationStatus(studentId, courseId, 2, 1);
+            return false;
+        }
     }
 
     /**
-     * Display email.
+     * Build email text.
      *
      * @param studentRecord Student record which provides information for email.
      * @param courseId      Course id which provides information for email.
+     * @return Email text.
      */
-    private void sendEmail(StudentRecord studentRecord, int courseId) {
-        final String[] courseNames = new String[5];
-        courseNames[1] = "Java";
-        courseNames[2] = "DSA";
-        courseNames[3] = "Databases";
-        courseNames[4] = "Spring";
-
-        String email = emailTemplate
-                .replace("%EMAIL_ADDRESS%", studentRecord.email())
-                .replace("%FULL_USER_NAME%", studentRecord.firstName() + " " + studentRecord.lastName())
-                .replace("%COURSE_NAME%", courseNames[courseId]);
+    private String renderEmail(StudentRecord studentRecord, int courseId) {
+        StringBuilder email = emailBuffer.get();
+        email.setLength(0);
+        emailTemplates[courseId].render(studentRecord, courseNames[courseId], email);
+        return email.toString();
+    }
 
-        System.out.println(email);
+    private static String stripLineTerminator(String text) {
+        if (text.endsWith("\r\n")) {
+            return text.substring(0, text.length() - 2);
+        }
+        if (text.endsWith("\n")) {
+            return text.substring(0, text.length() - 1);
+        }
+        return text;
     }
 }
@@ -0,0 +1,243 @@
+package tracker.output;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Console output shared by the handlers. Output is collected in a large buffer and written
+ * to System.out in one piece when the buffer fills up or {@link #flush()} is called, rather
+ * than one synchronized, flushing call per line. Numbers are appended without format
+ * strings.<br>
+ * Output must be flushed before waiting for input and before exiting, so prompts appear
+ * in the same order as with unbuffered output. Methods may be called from several threads;
+ * each call is appended in one piece. Lines are often built from several calls though, so
+ * background threads print with {@link #printLater(String)}, which holds their output
+ * until the next flush.<br>
+ * A text writer, see {@link #textWriter()}, collects output the same way but keeps it as
+ * text instead of writing it to System.out.
+ */
+public final class ConsoleWriter {
+    private static final ConsoleWriter instance = new ConsoleWriter(true);
+
+    private ConsoleWriter(boolean console) {
+        this.console = console;
+        buffer = new StringBuilder(console ? BUFFER_SIZE : TEXT_BUFFER_SIZE);
+    }
+
+    public static ConsoleWriter getInstance() {
+        return instance;
+    }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int TEXT_BUFFER_SIZE = 1 << 8;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    // false for a text writer.
+    private final boolean console;
+    private final StringBuilder buffer;
+    // Output printed later, each entry in one piece.
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    // Same decimal separator as printf uses.
+    private final char decimalSeparator =
+            DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)).getDecimalSeparator();
+
+    /**
+     * Create a text writer. Output is kept until it is taken with {@link #text()}, so it can
+     * be rendered once and printed to the console writer as often as needed.
+     *
+     * @return New text writer.
+     */
+    public static ConsoleWriter textWriter() {
+        return new ConsoleWriter(false);
+    }
+
+    /**
+     * Take the output of a text writer.
+     *
+     * @return Output collected since the text writer was created or last taken from.
+     */
+    public synchronized String text() {
+        if (console) {
+            throw new IllegalStateException("Not a text writer");
+        }
+        String text = buffer.toString();
+        buffer.setLength(0);
+        return text;
+    }
+
+    /**
+     * Print text at the next flush rather than now. Used for output from background
+     * threads, so it lands between what the handlers print instead of inside a line they
+     * are building, and never while input is being typed after a prompt.
+     *
+     * @param text Text to print. Should end with a line separator.
+     * @return This console writer.
+     */
+    public ConsoleWriter printLater(String text) {
+        pending.add(text);
+        return this;
+    }
+
+    /**
+     * Print the output held by {@link #printLater(String)} now.
+     *
+     * @return This console writer.
+     */
+    public synchronized ConsoleWriter printPending() {
+        appendPending();
+        return flushIfFull();
+    }
+
+    /**
+     * Print text.
+     *
+     * @param text Text to print.
+     * @return This console writer.
+     */
+    public synchronized ConsoleWriter print(String text) {
+        buffer.append(text);
+        return flushIfFull();
+    }
+
+    /**
+     * Print text, padded with spaces on the right to a minimum width. Same as
+     * printf("%-<width>s").
+     *
+     * @param text  Text to print.
+     * @param width Minimum width.
+     * @return This console writer.
+     */
+    public synchronized ConsoleWriter print(String text, int width) {
+        int start = buffer.length();
+        buffer.append(text);
+        pad(start, width);
+        return flushIfFull();
+    }
+
+    /**
+     * Print an int.
+     *
+     * @param value Int to print.
+     * @return This console writer.
+     */
+    public synchronized ConsoleWriter print(int value) {
+        buffer.append(value);
+        return flushIfFull();
+    }
+
+    /**
+     * Print an int, padded with spaces on the right to a minimum width. Same as
+     * printf("%-<width>d").
+     *
+     * @param value Int to print.
+     * @param width Minimum width.
+     * @return This console writer.
+     */
+    public synchronized ConsoleWriter print(int value, int width) {
+        int start = buffer.length();
+        buffer.append(value);
+        pad(start, width);
+        return flushIfFull();
+    }
+
+    /**
+     * Print a percentage with one decimal and a percent sign. Same as printf("%.1f%%") of
+     * tenths / 10.0.
+     *
+     * @param tenths Percentage in tenths of a percent. Must not be negative.
+     * @return This console writer.
+     */
+    public synchronized ConsoleWriter printPercent(long tenths) {
+        buffer.append(tenths / 10).append(decimalSeparator).append(tenths % 10).append('%');
+        return flushIfFull();
+    }
+
+    /**
+     * End the line.
+     *
+     * @return This console writer.
+     */
+    public synchronized ConsoleWriter println() {
+        buffer.append(LINE_SEPARATOR);
+        return flushIfFull();
+    }
+
+    /**
+     * Print text and end the line.
+     *
+     * @param text Text to print.
+     * @return This console writer.
+     */
+    public synchronized ConsoleWriter println(String text) {
+        buffer.append(text).append(LINE_SEPARATOR);
+        return flushIfFull();
+    }
+
+    /**
+     * Print an int and end the line.
+     *
+     * @param value Int to print.
+     * @return This console writer.
+     */
+    public synchronized ConsoleWriter println(int value) {
+        buffer.append(value).append(LINE_SEPARATOR);
+        return flushIfFull();
+    }
+
+    /**
+     * Print formatted text. For messages printed once in a while; output printed for every
+     * student should use the other print methods.
+     *
+     * @param format Format string, see {@link String#format(String, Object...)}.
+     * @param args   Format arguments.
+     * @return This console writer.
+     */
+    public synchronized ConsoleWriter printf(String format, Object... args) {
+        buffer.append(String.format(format, args));
+        return flushIfFull();
+    }
+
+    /**
+     * Write buffered output, followed by the output held by {@link #printLater(String)}, to
+     * System.out. Does nothing for a text writer.
+     */
+    public synchronized void flush() {
+        if (!console) {
+            return;
+        }
+        appendPending();
+        write();
+    }
+
+    private void write() {
+        if (buffer.length() > 0) {
+            System.out.append(buffer);
+            buffer.setLength(0);
+        }
+        System.out.flush();
+    }
+
+    private void appendPending() {
+        String text;
+        while ((text = pending.poll()) != null) {
+            buffer.append(text);
+        }
+    }
+
+    private void pad(int start, int width) {
+        for (int length = buffer.length() - start; length < width; length++) {
+            buffer.append(' ');
+        }
+    }
+
+    private ConsoleWriter flushIfFull() {
+        // Held output waits for an explicit flush, since a full buffer can end inside a
+        // line or a table.
+        if (console && (buffer.length() >= BUFFER_SIZE)) {
+            write();
+        }
+        return this;
+    }
+}
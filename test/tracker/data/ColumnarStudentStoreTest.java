@@ -0,0 +1,110 @@
+package tracker.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarStudentStoreTest {
+    private final ColumnarStudentStore store = new ColumnarStudentStore();
+
+    @Test
+    void get_ReturnsStoredValues() {
+        var studentRecord = new StudentRecord(10005, "Bob", "Jones", "bob@test.com");
+        studentRecord.setCourse2Points(40);
+        studentRecord.setCourse4NotificationStatus(2);
+        store.put(studentRecord);
+
+        assertEquals(studentRecord, store.get(10005));
+        assertNull(store.get(10004));
+        assertNull(store.get(9999));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void put_GrowsColumns() {
+        for (int i = 0; i < 5000; i++) {
+            store.put(new StudentRecord(10000 + i, "Bob", "Jones", "bob" + i + "@test.com"));
+        }
+        assertEquals(5000, store.size());
+        assertEquals("bob4999@test.com", store.get(14999).email());
+    }
+
+    @Test
+    void put_RejectsStudentIdBelowFirstId() {
+        assertThrows(IllegalArgumentException.class, () -> store.put(new StudentRecord(9999, "Bob", "Jones", "bob@test.com")));
+    }
+
+    @Test
+    void addPoints_AddsToCoursePoints() {
+        store.put(new StudentRecord(10000, "Bob", "Jones", "bob@test.com"));
+        store.addPoints(new StudentPointsRecord(10000, 1, 2, 3, 4));
+        assertTrue(store.addPoints(new StudentPointsRecord(10000, 10, 20, 30, 40)));
+
+        StudentRecord result = store.get(10000);
+        assertEquals(11, result.course1Points());
+        assertEquals(22, result.course2Points());
+        assertEquals(33, result.course3Points());
+        assertEquals(44, result.course4Points());
+        assertFalse(store.addPoints(new StudentPointsRecord(10001, 1, 2, 3, 4)));
+    }
+
+    @Test
+    void getCoursePoints_ReadsColumn() {
+        store.put(new StudentRecord(10000, "Bob", "Jones", "bob@test.com"));
+        store.addPoints(new StudentPointsRecord(10000, 1, 2, 3, 4));
+
+        assertEquals(3, store.getCoursePoints(10000, 3));
+        assertEquals(-1, store.getCoursePoints(10001, 3));
+        assertThrows(IllegalStateException.class, () -> store.getCoursePoints(10000, 5));
+    }
+
+    @Test
+    void applyPoints_FlagsCoursesReachingCompletionPoints() {
+        int[] completionPoints = {0, 10, 10, 10, 10};
+        store.put(new StudentRecord(10000, "Bob", "Jones", "bob@test.com"));
+        assertEquals(1 << 3, store.applyPoints(new StudentPointsRecord(10000, 0, 9, 10, 0), completionPoints));
+        assertEquals(1 << 2, store.applyPoints(new StudentPointsRecord(10000, 0, 1, 5, 0), completionPoints));
+
+        StudentRecord result = store.get(10000);
+        assertEquals(10, result.course2Points());
+        assertEquals(15, result.course3Points());
+        assertEquals(0, result.course1NotificationStatus());
+        assertEquals(1, result.course2NotificationStatus());
+        assertEquals(1, result.course3NotificationStatus());
+        assertEquals(-1, store.applyPoints(new StudentPointsRecord(10001, 10, 0, 0, 0), completionPoints));
+    }
+
+    @Test
+    void setCourseNotificationStatus_UpdatesStatus() {
+        store.put(new StudentRecord(10000, "Bob", "Jones", "bob@test.com"));
+        assertTrue(store.setCourseNotificationStatus(10000, 3, 1));
+        assertEquals(1, store.get(10000).course3NotificationStatus());
+        assertFalse(store.setCourseNotificationStatus(10001, 3, 1));
+    }
+
+    @Test
+    void remove_ClearsSlot() {
+        store.put(new StudentRecord(10000, "Bob", "Jones", "bob@test.com"));
+        store.addPoints(new StudentPointsRecord(10000, 1, 2, 3, 4));
+        assertEquals(10000, store.remove(10000).studentId());
+        assertNull(store.get(10000));
+        assertNull(store.remove(10000));
+        assertEquals(0, store.size());
+
+        // A student put in the same slot again starts from zero.
+        store.put(new StudentRecord(10000, "Ann", "Lee", "ann@test.com"));
+        assertEquals(0, store.get(10000).course1Points());
+    }
+
+    @Test
+    void forEach_VisitsStudentsInIdOrder() {
+        store.put(new StudentRecord(10002, "Cy", "Doe", "cy@test.com"));
+        store.put(new StudentRecord(10000, "Al", "Doe", "al@test.com"));
+        List<Integer> studentIds = new ArrayList<>();
+        store.forEach(studentRecord -> studentIds.add(studentRecord.studentId()));
+        assertEquals(List.of(10000, 10002), studentIds);
+    }
+}
@@ -0,0 +1,124 @@
+package tracker.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+    private static final StudentData studentData = StudentData.getInstance();
+    private static final StudentPointsData studentPointsData = StudentPointsData.getInstance();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void beforeEach() {
+        studentData.clear();
+        studentPointsData.clear();
+    }
+
+    @Test
+    void open_ReplaysRecordedChanges() throws IOException {
+        try (Journal ignored = Journal.open(directory, studentData, studentPointsData)) {
+            int bobId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+            int annId = studentData.addStudent(new StudentRecord("Ann", "Smith", "ann@test.com"));
+            studentData.updatePoints(new StudentPointsRecord(bobId, 600, 10, 0, 0));
+            studentData.setCourseNotificationStatus(bobId, 1, 1);
+            studentPointsData.addStudentPoints(new StudentPointsRecord(bobId, 600, 10, 0, 0));
+            int deletedPointsId = studentPointsData.addStudentPoints(new StudentPointsRecord(annId, 0, 0, 5, 0));
+            studentPointsData.deleteStudentPoints(deletedPointsId);
+            studentData.deleteStudent(annId);
+        }
+
+        studentData.clear();
+        studentPointsData.clear();
+        try (Journal ignored = Journal.open(directory, studentData, studentPointsData)) {
+            assertEquals(1, studentData.getNumberOfStudents());
+            Optional<StudentRecord> bob = studentData.getStudentByEmail("bob@test.com");
+            assertTrue(bob.isPresent());
+            assertEquals(600, bob.get().course1Points());
+            assertEquals(10, bob.get().course2Points());
+            assertEquals(Optional.of(1), studentData.getCourseNotificationStatus(bob.get().studentId(), 1));
+            assertEquals(1, studentPointsData.getStudentPoints().size());
+            assertEquals(new CourseStatisticsRecord(3, 0, 0, 0), studentPointsData.getCourseStatistics(3));
+
+            // Ids continue after the replayed ones.
+            assertEquals(10002, studentData.addStudent(new StudentRecord("Cal", "Lee", "cal@test.com")));
+        }
+    }
+
+    @Test
+    void open_DiscardsTornEntry() throws IOException {
+        try (Journal ignored = Journal.open(directory, studentData, studentPointsData)) {
+            studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+            studentData.addStudent(new StudentRecord("Ann", "Smith", "ann@test.com"));
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve(Journal.JOURNAL_FILE), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        studentData.clear();
+        try (Journal ignored = Journal.open(directory, studentData, studentPointsData)) {
+            assertEquals(1, studentData.getNumberOfStudents());
+            assertTrue(studentData.getStudentByEmail("ann@test.com").isEmpty());
+            studentData.addStudent(new StudentRecord("Cal", "Lee", "cal@test.com"));
+        }
+
+        studentData.clear();
+        try (Journal ignored = Journal.open(directory, studentData, studentPointsData)) {
+            assertEquals(2, studentData.getNumberOfStudents());
+            assertTrue(studentData.getStudentByEmail("cal@test.com").isPresent());
+        }
+    }
+
+    @Test
+    void open_RestoresSnapshotAndReplaysLaterChanges() throws IOException {
+        try (Journal journal = Journal.open(directory, studentData, studentPointsData)) {
+            int bobId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+            int annId = studentData.addStudent(new StudentRecord("Ann", "Smith", "ann@test.com"));
+            studentData.updatePoints(new StudentPointsRecord(bobId, 100, 0, 0, 0));
+            studentPointsData.addStudentPoints(new StudentPointsRecord(bobId, 100, 0, 0, 0));
+            studentData.deleteStudent(annId);
+            journal.checkpoint();
+            assertEquals(16, Files.size(directory.resolve(Journal.JOURNAL_FILE)));
+
+            studentData.updatePoints(new StudentPointsRecord(bobId, 50, 0, 0, 0));
+            studentPointsData.addStudentPoints(new StudentPointsRecord(bobId, 50, 0, 0, 0));
+        }
+
+        studentData.clear();
+        studentPointsData.clear();
+        try (Journal ignored = Journal.open(directory, studentData, studentPointsData)) {
+            assertEquals(1, studentData.getNumberOfStudents());
+            assertEquals(150, studentData.getStudentByEmail("bob@test.com").orElseThrow().course1Points());
+            assertEquals(new CourseStatisticsRecord(1, 1, 2, 150), studentPointsData.getCourseStatistics(1));
+
+            // The deleted student's id is not handed out again.
+            assertEquals(10002, studentData.addStudent(new StudentRecord("Cal", "Lee", "cal@test.com")));
+        }
+    }
+
+    @Test
+    void open_SkipsJournalAlreadyInSnapshot() throws IOException {
+        try (Journal ignored = Journal.open(directory, studentData, studentPointsData)) {
+            int bobId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+            studentData.updatePoints(new StudentPointsRecord(bobId, 100, 0, 0, 0));
+        }
+        // Simulate a crash after the snapshot was written but before the journal was emptied.
+        Snapshot.write(directory.resolve(Journal.SNAPSHOT_FILE), 0, studentData, studentPointsData);
+
+        studentData.clear();
+        try (Journal ignored = Journal.open(directory, studentData, studentPointsData)) {
+            assertEquals(100, studentData.getStudentByEmail("bob@test.com").orElseThrow().course1Points());
+        }
+    }
+}
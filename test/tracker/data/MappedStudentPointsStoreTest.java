@@ -0,0 +1,87 @@
+package tracker.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedStudentPointsStoreTest {
+    @TempDir
+    Path directory;
+
+    private MappedStudentPointsStore store;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        store = new MappedStudentPointsStore(directory.resolve(MappedStudentPointsStore.POINTS_FILE));
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void get_ReturnsStoredValues() {
+        store.put(new StudentPointsRecord(10003, 10000, 1, 2, 3, 4));
+        assertEquals(new StudentPointsRecord(10003, 10000, 1, 2, 3, 4), store.get(10003));
+        assertNull(store.get(10002));
+        assertNull(store.get(10004));
+        assertNull(store.get(9999));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void put_MapsFurtherSegments() {
+        int studentPointsId = 10000 + 3 * 1_000_000;
+        store.put(new StudentPointsRecord(studentPointsId, 10001, 5, 0, 0, 0));
+        assertEquals(5, store.get(studentPointsId).course1Points());
+    }
+
+    @Test
+    void remove_LeavesTombstone() {
+        store.put(new StudentPointsRecord(10000, 10000, 1, 0, 0, 0));
+        store.put(new StudentPointsRecord(10001, 10000, 2, 0, 0, 0));
+        assertEquals(1, store.remove(10000).course1Points());
+        assertNull(store.remove(10000));
+        assertNull(store.get(10000));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void forEach_SkipsEmptySlots() {
+        store.put(new StudentPointsRecord(10000, 10000, 1, 0, 0, 0));
+        store.put(new StudentPointsRecord(10002, 10000, 3, 0, 0, 0));
+        store.put(new StudentPointsRecord(10004, 10000, 5, 0, 0, 0));
+        store.remove(10002);
+
+        List<Integer> points = new ArrayList<>();
+        store.forEach(studentPointsRecord -> points.add(studentPointsRecord.course1Points()));
+        assertEquals(List.of(1, 5), points);
+    }
+
+    @Test
+    void open_DiscardsExistingRecords() throws IOException {
+        store.put(new StudentPointsRecord(10000, 10000, 1, 0, 0, 0));
+        store.close();
+        store = new MappedStudentPointsStore(directory.resolve(MappedStudentPointsStore.POINTS_FILE));
+        assertNull(store.get(10000));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void clear_RemovesAllRecords() {
+        store.put(new StudentPointsRecord(10000, 10000, 1, 0, 0, 0));
+        store.clear();
+        assertNull(store.get(10000));
+        store.put(new StudentPointsRecord(10001, 10000, 1, 0, 0, 0));
+        assertEquals(1, store.size());
+    }
+}
@@ -0,0 +1,49 @@
+package tracker.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTest {
+    private static final StudentData studentData = StudentData.getInstance();
+    private static final StudentPointsData studentPointsData = StudentPointsData.getInstance();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void beforeEach() {
+        studentData.clear();
+        studentPointsData.clear();
+    }
+
+    @Test
+    void read_ReadsValuesAcrossSegments() throws IOException {
+        for (int i = 0; i < 50; i++) {
+            int studentId = studentData.addStudent(new StudentRecord("Bob", "Jones" + "-Smith".repeat(i % 5), "bob" + i + "@test.com"));
+            studentData.setCourseNotificationStatus(studentId, 1 + i % 4, i % 3);
+            studentData.updatePoints(new StudentPointsRecord(studentId, i, 2 * i, 0, 4 * i));
+            studentPointsData.addStudentPoints(new StudentPointsRecord(studentId, i, 2 * i, 0, 4 * i));
+        }
+        List<StudentRecord> students = studentData.getStudents();
+        List<StudentPointsRecord> studentPoints = studentPointsData.getStudentPoints();
+        Path path = directory.resolve(Journal.SNAPSHOT_FILE);
+        Snapshot.write(path, 3, studentData, studentPointsData);
+
+        // Small segments of an odd size, so ints and strings are split between segments.
+        for (long segmentBytes : new long[]{1, 7, 61, 1L << 30}) {
+            studentData.clear();
+            studentPointsData.clear();
+            assertEquals(3, Snapshot.read(path, studentData, studentPointsData, segmentBytes));
+            assertEquals(students, studentData.getStudents());
+            assertEquals(studentPoints, studentPointsData.getStudentPoints());
+            assertEquals(10050, studentData.getNextStudentId());
+        }
+    }
+}
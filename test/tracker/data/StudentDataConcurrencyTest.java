@@ -0,0 +1,219 @@
+package tracker.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentDataConcurrencyTest {
+    private static final int THREADS = 16;
+
+    private static final StudentData studentData = StudentData.getInstance();
+    private static final StudentPointsData studentPointsData = StudentPointsData.getInstance();
+
+    @TempDir
+    Path directory;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void beforeEach() {
+        studentData.clear();
+        studentPointsData.clear();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+        studentData.clear();
+        studentPointsData.clear();
+    }
+
+    @Test
+    void addStudent_HandsOutDistinctIds() throws Exception {
+        final int STUDENTS_PER_THREAD = 5_000;
+
+        List<List<Integer>> studentIds = runOnAllThreads(thread -> {
+            List<Integer> added = new ArrayList<>();
+            for (int i = 0; i < STUDENTS_PER_THREAD; i++) {
+                added.add(studentData.addStudent(new StudentRecord("Bob", "Jones", "bob" + thread + "-" + i + "@test.com")));
+            }
+            return added;
+        });
+
+        Set<Integer> distinct = new HashSet<>();
+        studentIds.forEach(distinct::addAll);
+        assertEquals(THREADS * STUDENTS_PER_THREAD, distinct.size());
+        assertEquals(THREADS * STUDENTS_PER_THREAD, studentData.getNumberOfStudents());
+        assertEquals(10000 + THREADS * STUDENTS_PER_THREAD, studentData.getNextStudentId());
+        assertTrue(studentData.getStudentByEmail("bob3-4999@test.com").isPresent());
+    }
+
+    @Test
+    void addStudent_AddsEachEmailOnce() throws Exception {
+        final int EMAILS = 2_000;
+
+        // Every thread checks and adds the same emails, as input handlers on several
+        // threads would.
+        List<List<Integer>> studentIds = runOnAllThreads(thread -> {
+            List<Integer> added = new ArrayList<>();
+            for (int i = 0; i < EMAILS; i++) {
+                String email = "bob" + i + "@test.com";
+                if (studentData.getStudentByEmail(email).isEmpty()) {
+                    int studentId = studentData.addStudent(new StudentRecord("Bob", "Jones", email));
+                    if (studentId != -1) {
+                        added.add(studentId);
+                    }
+                }
+            }
+            return added;
+        });
+
+        Set<Integer> distinct = new HashSet<>();
+        studentIds.forEach(distinct::addAll);
+        assertEquals(EMAILS, distinct.size());
+        assertEquals(EMAILS, studentData.getNumberOfStudents());
+        assertEquals(10000 + EMAILS, studentData.getNextStudentId());
+        for (int i = 0; i < EMAILS; i++) {
+            assertTrue(studentData.getStudentByEmail("bob" + i + "@test.com").isPresent());
+        }
+    }
+
+    @Test
+    void updatePoints_KeepsEveryUpdateFromConcurrentWorkers() throws Exception {
+        final int STUDENTS = 50;
+        final int UPDATES_PER_THREAD = 20_000;
+        addStudents(STUDENTS);
+
+        runOnAllThreads(thread -> {
+            Random random = new Random(thread);
+            for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                studentData.updatePoints(new StudentPointsRecord(10000 + random.nextInt(STUDENTS), 1, 2, 3, 4));
+            }
+            return null;
+        });
+
+        long[] totals = new long[5];
+        for (StudentRecord studentRecord : studentData.getStudents()) {
+            // Each update adds to all four courses at once, so the courses stay in step.
+            assertEquals(2 * studentRecord.course1Points(), studentRecord.course2Points());
+            assertEquals(4 * studentRecord.course1Points(), studentRecord.course4Points());
+            totals[1] += studentRecord.course1Points();
+            totals[3] += studentRecord.course3Points();
+        }
+        assertEquals((long) THREADS * UPDATES_PER_THREAD, totals[1]);
+        assertEquals(3L * THREADS * UPDATES_PER_THREAD, totals[3]);
+    }
+
+    @Test
+    void compareAndSetCourseNotificationStatus_LetsOneThreadWin() throws Exception {
+        final int ROUNDS = 200;
+        addStudents(ROUNDS);
+
+        AtomicInteger wins = new AtomicInteger();
+        runOnAllThreads(thread -> {
+            for (int round = 0; round < ROUNDS; round++) {
+                if (studentData.compareAndSetCourseNotificationStatus(10000 + round, 2, 0, 1)) {
+                    wins.incrementAndGet();
+                }
+            }
+            return null;
+        });
+
+        assertEquals(ROUNDS, wins.get());
+    }
+
+    @Test
+    void applyPoints_FlagsEachCompletedCourseOnce() throws Exception {
+        final int STUDENTS = 100;
+        final int[] COMPLETION_POINTS = {0, 600, 400, 480, 550};
+        addStudents(STUDENTS);
+
+        // Every thread pushes every student past completion of course 1.
+        AtomicInteger flagged = new AtomicInteger();
+        runOnAllThreads(thread -> {
+            for (int studentId = 10000; studentId < 10000 + STUDENTS; studentId++) {
+                for (int i = 0; i < 60; i++) {
+                    int completedCourses = studentData.applyPoints(new StudentPointsRecord(studentId, 10, 0, 0, 0),
+                            COMPLETION_POINTS, studentPointsData);
+                    flagged.addAndGet(Integer.bitCount(completedCourses));
+                }
+            }
+            return null;
+        });
+
+        assertEquals(STUDENTS, flagged.get());
+        assertEquals(STUDENTS * THREADS * 60, studentPointsData.getNumberOfStudentPoints());
+        assertEquals(STUDENTS * THREADS * 60 * 10L, studentPointsData.getCourseStatistics(1).gradeSum());
+    }
+
+    @Test
+    void journal_RecordsConcurrentChangesAcrossCheckpoints() throws Exception {
+        final int STUDENTS = 200;
+        final int UPDATES_PER_THREAD = 5_000;
+
+        try (Journal journal = Journal.open(directory, studentData, studentPointsData)) {
+            journal.setCheckpointEntries(2_000);
+            addStudents(STUDENTS);
+            runOnAllThreads(thread -> {
+                Random random = new Random(thread);
+                for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                    studentData.updatePoints(new StudentPointsRecord(10000 + random.nextInt(STUDENTS), 1, 0, 0, 1));
+                }
+                return null;
+            });
+        }
+        List<StudentRecord> expected = studentData.getStudents();
+
+        studentData.clear();
+        studentPointsData.clear();
+        Journal.open(directory, studentData, studentPointsData).close();
+
+        assertEquals(new HashSet<>(expected), new HashSet<>(studentData.getStudents()));
+    }
+
+    private static void addStudents(int numberOfStudents) {
+        for (int i = 0; i < numberOfStudents; i++) {
+            studentData.addStudent(new StudentRecord("Bob", "Jones", "bob" + i + "@test.com"));
+        }
+    }
+
+    /**
+     * Run a task on every thread at once and wait for all of them.
+     */
+    private <T> List<T> runOnAllThreads(ThreadTask<T> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int threadNumber = thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.run(threadNumber);
+            }));
+        }
+        start.countDown();
+
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask<T> {
+        T run(int thread) throws Exception;
+    }
+}
@@ -0,0 +1,240 @@
+package tracker.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentDataTest {
+    private static final StudentData studentData = StudentData.getInstance();
+    private static final StudentPointsData studentPointsData = StudentPointsData.getInstance();
+    private static final int[] COMPLETION_POINTS = {0, 600, 400, 480, 550};
+
+    @BeforeEach
+    void beforeEach() {
+        studentData.clear();
+        studentPointsData.clear();
+    }
+
+    @Test
+    void getStudentByEmail_FindsAddedStudent() {
+        int studentId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+        Optional<StudentRecord> result = studentData.getStudentByEmail("bob@test.com");
+        assertTrue(result.isPresent());
+        assertEquals(studentId, result.get().studentId());
+    }
+
+    @Test
+    void getStudentByEmail_IsCaseSensitive() {
+        studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+        assertTrue(studentData.getStudentByEmail("Bob@Test.com").isEmpty());
+    }
+
+    @Test
+    void addStudent_RejectsTakenEmail() {
+        int studentId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+        assertEquals(-1, studentData.addStudent(new StudentRecord("Robert", "Jones", "bob@test.com")));
+        assertEquals(1, studentData.getNumberOfStudents());
+        assertEquals(studentId, studentData.getStudentByEmail("bob@test.com").orElseThrow().studentId());
+
+        // Emails differing only in case are different emails.
+        int otherId = studentData.addStudent(new StudentRecord("Bob", "Jones", "Bob@test.com"));
+        assertEquals(otherId, studentData.getStudentByEmail("Bob@test.com").orElseThrow().studentId());
+        assertEquals(studentId, studentData.getStudentByEmailIgnoreCase("BOB@test.com").orElseThrow().studentId());
+    }
+
+    @Test
+    void getStudentByEmailIgnoreCase_FindsAddedStudent() {
+        int studentId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+        Optional<StudentRecord> result = studentData.getStudentByEmailIgnoreCase("Bob@Test.com");
+        assertTrue(result.isPresent());
+        assertEquals(studentId, result.get().studentId());
+    }
+
+    @Test
+    void getStudentByEmail_DoesNotFindDeletedStudent() {
+        int studentId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+        studentData.deleteStudent(studentId);
+        assertTrue(studentData.getStudentByEmail("bob@test.com").isEmpty());
+        assertTrue(studentData.getStudentByEmailIgnoreCase("bob@test.com").isEmpty());
+    }
+
+    @Test
+    void getVersion_GoesUpWithEveryChange() {
+        long version = studentData.getVersion();
+        int studentId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+        assertTrue(studentData.getVersion() > version);
+
+        version = studentData.getVersion();
+        studentData.updatePoints(new StudentPointsRecord(studentId, 1, 0, 0, 0));
+        assertTrue(studentData.getVersion() > version);
+
+        version = studentData.getVersion();
+        studentData.setCourseNotificationStatus(studentId, 1, 2);
+        assertTrue(studentData.getVersion() > version);
+
+        // Looking up and changing a missing student is not a change.
+        version = studentData.getVersion();
+        studentData.getStudent(studentId);
+        studentData.updatePoints(new StudentPointsRecord(studentId + 1, 1, 0, 0, 0));
+        studentData.deleteStudent(studentId + 1);
+        assertEquals(version, studentData.getVersion());
+
+        studentData.deleteStudent(studentId);
+        assertTrue(studentData.getVersion() > version);
+    }
+
+    @Test
+    void getStudentByEmail_FollowsEmailChange() {
+        int studentId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+        studentData.updateEmail(studentId, "robert@test.com");
+        assertTrue(studentData.getStudentByEmail("bob@test.com").isEmpty());
+        Optional<StudentRecord> result = studentData.getStudentByEmail("robert@test.com");
+        assertTrue(result.isPresent());
+        assertEquals(studentId, result.get().studentId());
+    }
+
+    @Test
+    void columnarStorage_KeepsSameBehaviour() {
+        studentData.setStorage(StudentData.Storage.COLUMNAR);
+        try {
+            int studentId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+            studentData.updatePoints(new StudentPointsRecord(studentId, 600, 0, 5, 0));
+            studentData.setCourseNotificationStatus(studentId, 1, 1);
+            studentData.updateEmail(studentId, "robert@test.com");
+
+            Optional<StudentRecord> result = studentData.getStudentByEmail("robert@test.com");
+            assertTrue(result.isPresent());
+            assertEquals(600, result.get().course1Points());
+            assertEquals(5, result.get().course3Points());
+            assertEquals(Optional.of(1), studentData.getCourseNotificationStatus(studentId, 1));
+            assertEquals(600, studentData.getCoursePoints(studentId, 1));
+            assertThrows(IllegalStateException.class, () -> studentData.setStorage(StudentData.Storage.MAP));
+        } finally {
+            studentData.clear();
+            studentData.setStorage(StudentData.Storage.MAP);
+        }
+    }
+
+    @Test
+    void getCoursePoints_ReadsRunningTotal() {
+        int studentId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+        studentData.updatePoints(new StudentPointsRecord(studentId, 5, 0, 7, 0));
+        studentData.updatePoints(new StudentPointsRecord(studentId, 10, 0, 0, 0));
+
+        assertEquals(15, studentData.getCoursePoints(studentId, 1));
+        assertEquals(0, studentData.getCoursePoints(studentId, 2));
+        assertEquals(7, studentData.getCoursePoints(studentId, 3));
+        assertEquals(-1, studentData.getCoursePoints(studentId + 1, 1));
+    }
+
+    @Test
+    void applyPoints_FlagsCompletedCoursesOnce() {
+        assertApplyPointsFlagsCompletedCoursesOnce();
+    }
+
+    @Test
+    void applyPoints_FlagsCompletedCoursesOnceWithColumnarStorage() {
+        studentData.setStorage(StudentData.Storage.COLUMNAR);
+        try {
+            assertApplyPointsFlagsCompletedCoursesOnce();
+        } finally {
+            studentData.clear();
+            studentData.setStorage(StudentData.Storage.MAP);
+        }
+    }
+
+    @Test
+    void applyPoints_IgnoresUnknownStudent() {
+        assertEquals(-1, studentData.applyPoints(new StudentPointsRecord(10000, 600, 0, 0, 0), COMPLETION_POINTS, studentPointsData));
+        assertEquals(0, studentPointsData.getNumberOfStudentPoints());
+    }
+
+    private static void assertApplyPointsFlagsCompletedCoursesOnce() {
+        int studentId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+        assertEquals(0, studentData.applyPoints(new StudentPointsRecord(studentId, 500, 399, 0, 0), COMPLETION_POINTS, studentPointsData));
+        assertEquals((1 << 1) | (1 << 2), studentData.applyPoints(new StudentPointsRecord(studentId, 100, 1, 0, 0), COMPLETION_POINTS, studentPointsData));
+        assertEquals(0, studentData.applyPoints(new StudentPointsRecord(studentId, 10, 0, 0, 0), COMPLETION_POINTS, studentPointsData));
+
+        StudentRecord result = studentData.getStudent(studentId).orElseThrow();
+        assertEquals(610, result.course1Points());
+        assertEquals(400, result.course2Points());
+        assertEquals(1, result.course1NotificationStatus());
+        assertEquals(1, result.course2NotificationStatus());
+        assertEquals(0, result.course3NotificationStatus());
+        assertEquals(3, studentPointsData.getNumberOfStudentPoints());
+    }
+
+    @Test
+    void forEachPendingNotification_FollowsNotificationStatus() {
+        int bobId = studentData.addStudent(new StudentRecord("Bob", "Jones", "bob@test.com"));
+        int annId = studentData.addStudent(new StudentRecord("Ann", "Smith", "ann@test.com"));
+        int joeId = studentData.addStudent(new StudentRecord("Joe", "Brown", "joe@test.com"));
+        studentData.applyPoints(new StudentPointsRecord(annId, 0, 400, 0, 550), COMPLETION_POINTS, studentPointsData);
+        studentData.setCourseNotificationStatus(bobId, 3, 1);
+        studentData.setCourseNotificationStatus(joeId, 1, 1);
+        studentData.compareAndSetCourseNotificationStatus(annId, 4, 1, 2);
+        studentData.deleteStudent(joeId);
+
+        List<String> pending = new ArrayList<>();
+        studentData.forEachPendingNotification((studentId, courseId) -> pending.add(studentId + ":" + courseId));
+        assertEquals(List.of(bobId + ":3", annId + ":2"), pending);
+        assertEquals(2, studentData.getNumberOfPendingNotifications());
+    }
+
+    @Test
+    void forEachId_VisitsStudentsInIdOrder() {
+        assertForEachIdVisitsStudentsInIdOrder();
+    }
+
+    @Test
+    void forEachId_VisitsStudentsInIdOrderWithColumnarStorage() {
+        studentData.setStorage(StudentData.Storage.COLUMNAR);
+        try {
+            assertForEachIdVisitsStudentsInIdOrder();
+        } finally {
+            studentData.clear();
+            studentData.setStorage(StudentData.Storage.MAP);
+        }
+    }
+
+    private static void assertForEachIdVisitsStudentsInIdOrder() {
+        addStudents(6);
+        studentData.deleteStudent(10001);
+        studentData.deleteStudent(10005);
+
+        List<Integer> all = new ArrayList<>();
+        studentData.forEachId(all::add);
+        assertEquals(List.of(10000, 10002, 10003, 10004), all);
+
+        List<Integer> page = new ArrayList<>();
+        int nextStudentId = studentData.forEachId(0, 2, page::add);
+        assertEquals(List.of(10000, 10002), page);
+        nextStudentId = studentData.forEachId(nextStudentId, 2, page::add);
+        assertEquals(List.of(10000, 10002, 10003, 10004), page);
+        assertEquals(-1, nextStudentId);
+    }
+
+    @Test
+    void getStudentByEmail_FindsEachOfManyStudents() {
+        addStudents(5_000);
+        studentData.addStudent(new StudentRecord("Bob", "Jones", "BOB17@test.com"));
+
+        for (StudentRecord studentRecord : studentData.getStudents()) {
+            Optional<StudentRecord> result = studentData.getStudentByEmail(studentRecord.email());
+            assertTrue(result.isPresent());
+            assertEquals(studentRecord.studentId(), result.get().studentId());
+        }
+        assertTrue(studentData.getStudentByEmail("bob5000@test.com").isEmpty());
+    }
+
+    private static void addStudents(int numberOfStudents) {
+        for (int i = studentData.getNumberOfStudents(); i < numberOfStudents; i++) {
+            studentData.addStudent(new StudentRecord("Bob", "Jones", "bob" + i + "@test.com"));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package tracker.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentPointsDataTest {
+    private static final StudentPointsData studentPointsData = StudentPointsData.getInstance();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void beforeEach() {
+        studentPointsData.clear();
+    }
+
+    @Test
+    void addStudentPoints_KeepsStudentId() {
+        var studentPointsRecord = new StudentPointsRecord(10005, 1, 2, 3, 4);
+        int studentPointsId = studentPointsData.addStudentPoints(studentPointsRecord);
+        assertEquals(studentPointsId, studentPointsRecord.studentPointsId());
+        assertEquals(10005, studentPointsRecord.studentId());
+    }
+
+    @Test
+    void getCourseStatistics_AggregatesAddedPoints() {
+        studentPointsData.addStudentPoints(new StudentPointsRecord(10000, 100, 0, 0, 0));
+        studentPointsData.addStudentPoints(new StudentPointsRecord(10000, 50, 200, 0, 0));
+        studentPointsData.addStudentPoints(new StudentPointsRecord(10001, 30, 0, 0, 0));
+
+        assertEquals(new CourseStatisticsRecord(1, 2, 3, 180), studentPointsData.getCourseStatistics(1));
+        assertEquals(new CourseStatisticsRecord(2, 1, 1, 200), studentPointsData.getCourseStatistics(2));
+        assertEquals(new CourseStatisticsRecord(3, 0, 0, 0), studentPointsData.getCourseStatistics(3));
+        assertEquals(60.0, studentPointsData.getCourseStatistics(1).averageGrade());
+    }
+
+    @Test
+    void getCourseStatistics_ExcludesDeletedPoints() {
+        int firstId = studentPointsData.addStudentPoints(new StudentPointsRecord(10000, 100, 0, 0, 0));
+        int secondId = studentPointsData.addStudentPoints(new StudentPointsRecord(10000, 50, 0, 0, 0));
+
+        studentPointsData.deleteStudentPoints(firstId);
+        assertEquals(new CourseStatisticsRecord(1, 1, 1, 50), studentPointsData.getCourseStatistics(1));
+
+        studentPointsData.deleteStudentPoints(secondId);
+        assertEquals(new CourseStatisticsRecord(1, 0, 0, 0), studentPointsData.getCourseStatistics(1));
+    }
+
+    @Test
+    void getEnrolledStudents_ReturnsStudentsInEveryCourse() {
+        studentPointsData.addStudentPoints(new StudentPointsRecord(10000, 100, 10, 0, 0));
+        studentPointsData.addStudentPoints(new StudentPointsRecord(10001, 50, 0, 0, 0));
+        int thirdId = studentPointsData.addStudentPoints(new StudentPointsRecord(10001, 0, 20, 0, 0));
+        studentPointsData.addStudentPoints(new StudentPointsRecord(10002, 0, 20, 30, 0));
+
+        assertEquals(new BitSet(), studentPointsData.getEnrolledStudents(4));
+        assertEquals(bitSet(10000, 10001), studentPointsData.getEnrolledStudents(1));
+        assertEquals(bitSet(10000, 10001), studentPointsData.getEnrolledStudents(1, 2));
+        assertEquals(bitSet(10002), studentPointsData.getEnrolledStudents(2, 3));
+
+        studentPointsData.deleteStudentPoints(thirdId);
+        assertEquals(bitSet(10000), studentPointsData.getEnrolledStudents(1, 2));
+        assertEquals(new CourseStatisticsRecord(2, 2, 2, 30), studentPointsData.getCourseStatistics(2));
+    }
+
+    private static BitSet bitSet(int... studentIds) {
+        BitSet bitSet = new BitSet();
+        for (int studentId : studentIds) {
+            bitSet.set(studentId);
+        }
+        return bitSet;
+    }
+
+    @Test
+    void rebuildAggregates_MatchesAddedAndDeletedPoints() {
+        Random random = new Random(42);
+        List<Integer> studentPointsIds = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            studentPointsIds.add(studentPointsData.addStudentPoints(new StudentPointsRecord(10000 + random.nextInt(300),
+                    random.nextInt(3) * 5, random.nextInt(3) * 5, random.nextInt(3) * 5, random.nextInt(3) * 5)));
+        }
+        for (int i = 0; i < 500; i++) {
+            studentPointsData.deleteStudentPoints(studentPointsIds.get(random.nextInt(studentPointsIds.size())));
+        }
+        List<CourseStatisticsRecord> expected = courseStatistics();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            studentPointsData.rebuildAggregates(pool, 0);
+            assertEquals(expected, courseStatistics());
+        } finally {
+            pool.shutdown();
+        }
+        studentPointsData.rebuildAggregates(null, Integer.MAX_VALUE);
+        assertEquals(expected, courseStatistics());
+    }
+
+    @Test
+    void deleteStudentPoints_AfterRebuild_EndsEnrollment() {
+        int firstId = studentPointsData.addStudentPoints(new StudentPointsRecord(10000, 100, 0, 0, 0));
+        int secondId = studentPointsData.addStudentPoints(new StudentPointsRecord(10000, 50, 0, 0, 0));
+        studentPointsData.rebuildAggregates();
+
+        studentPointsData.deleteStudentPoints(firstId);
+        assertEquals(new CourseStatisticsRecord(1, 1, 1, 50), studentPointsData.getCourseStatistics(1));
+
+        studentPointsData.addStudentPoints(new StudentPointsRecord(10001, 20, 0, 0, 0));
+        studentPointsData.deleteStudentPoints(secondId);
+        assertEquals(new CourseStatisticsRecord(1, 1, 1, 20), studentPointsData.getCourseStatistics(1));
+    }
+
+    @Test
+    void getCourseStatistics_AggregatesRestoredPoints() {
+        studentPointsData.restoreStudentPoints(new StudentPointsRecord(10010, 10000, 100, 0, 0, 0));
+        studentPointsData.restoreStudentPoints(new StudentPointsRecord(10011, 10001, 30, 0, 0, 0));
+
+        assertEquals(new CourseStatisticsRecord(1, 2, 2, 130), studentPointsData.getCourseStatistics(1));
+    }
+
+    private static List<CourseStatisticsRecord> courseStatistics() {
+        List<CourseStatisticsRecord> courseStatistics = new ArrayList<>();
+        for (int courseId = 1; courseId < 5; courseId++) {
+            courseStatistics.add(studentPointsData.getCourseStatistics(courseId));
+        }
+        return courseStatistics;
+    }
+
+    @Test
+    void getVersion_GoesUpWithEveryChange() {
+        long version = studentPointsData.getVersion();
+        int studentPointsId = studentPointsData.addStudentPoints(new StudentPointsRecord(10000, 100, 0, 0, 0));
+        assertTrue(studentPointsData.getVersion() > version);
+
+        version = studentPointsData.getVersion();
+        studentPointsData.getCourseStatistics(1);
+        studentPointsData.deleteStudentPoints(studentPointsId + 1);
+        assertEquals(version, studentPointsData.getVersion());
+
+        studentPointsData.deleteStudentPoints(studentPointsId);
+        assertTrue(studentPointsData.getVersion() > version);
+    }
+
+    @Test
+    void getStudentPointsByCourseId_ReturnsRecordsWithCoursePoints() {
+        var first = new StudentPointsRecord(10000, 100, 0, 0, 0);
+        var second = new StudentPointsRecord(10001, 0, 200, 0, 0);
+        var third = new StudentPointsRecord(10002, 30, 0, 0, 0);
+        studentPointsData.addStudentPoints(first);
+        studentPointsData.addStudentPoints(second);
+        studentPointsData.addStudentPoints(third);
+
+        assertEquals(List.of(first, third), studentPointsData.getStudentPointsByCourseId(1));
+        assertEquals(List.of(second), studentPointsData.getStudentPointsByCourseId(2));
+        assertEquals(List.of(), studentPointsData.getStudentPointsByCourseId(3));
+
+        studentPointsData.deleteStudentPoints(first.studentPointsId());
+        assertEquals(List.of(third), studentPointsData.getStudentPointsByCourseId(1));
+    }
+
+    @Test
+    void forEachStudentPointsByCourseId_ScansMappedStorage() throws IOException {
+        studentPointsData.setStorage(StudentPointsData.Storage.MAPPED, directory);
+        try {
+            studentPointsData.addStudentPoints(new StudentPointsRecord(10000, 100, 0, 0, 0));
+            studentPointsData.addStudentPoints(new StudentPointsRecord(10001, 0, 200, 0, 0));
+            studentPointsData.addStudentPoints(new StudentPointsRecord(10002, 30, 0, 0, 0));
+
+            List<Integer> studentIds = new ArrayList<>();
+            studentPointsData.forEachStudentPointsByCourseId(1, studentPointsRecord -> studentIds.add(studentPointsRecord.studentId()));
+            assertEquals(List.of(10000, 10002), studentIds);
+            assertEquals(new CourseStatisticsRecord(1, 2, 2, 130), studentPointsData.getCourseStatistics(1));
+        } finally {
+            studentPointsData.clear();
+            studentPointsData.setStorage(StudentPointsData.Storage.HEAP, null);
+        }
+    }
+}
@@ -1,80 +1,125 @@
 package tracker.input;
 
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mockito;
 import tracker.data.StudentData;
 import tracker.data.StudentPointsData;
 import tracker.data.StudentPointsRecord;
 import tracker.data.StudentRecord;
+import tracker.notification.NotificationDispatcher;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class AddPointsHandlerTest {
     private static final AddPointsHandler addPointsHandler = AddPointsHandler.getInstance();
     private static final StudentData studentData = Mockito.mock(StudentData.class);
     private static final StudentPointsData studentPointsData = Mockito.mock(StudentPointsData.class);
+    private static final NotificationDispatcher notificationDispatcher = Mockito.mock(NotificationDispatcher.class);
 
     @BeforeAll
     static void beforeAll() {
         addPointsHandler.setStudentData(studentData);
         addPointsHandler.setStudentPointsData(studentPointsData);
+        addPointsHandler.setNotificationDispatcher(notificationDispatcher);
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        // The mocks are shared by every test, so clear stubbing left by earlier tests.
+        Mockito.reset(studentData, studentPointsData, notificationDispatcher);
     }
 
     @Test
-    void buildStudentPointsRecord_BuildsRecord() {
-        var elements = new String[]{"10000", "1", "2", "3", "4"};
-        Optional<StudentPointsRecord> result = addPointsHandler.buildStudentPointsRecord(elements);
-        assertTrue(result.isPresent());
+    void parseStudentPointsRecord_BuildsRecord() {
+        var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0);
+        assertTrue(addPointsHandler.parseStudentPointsRecord("10000 1 2 3 4", false, studentPointsRecord, new int[5]));
 
-        assertEquals(10000, result.get().studentId());
-        assertEquals(1, result.get().course1Points());
-        assertEquals(2, result.get().course2Points());
-        assertEquals(3, result.get().course3Points());
-        assertEquals(4, result.get().course4Points());
+        assertEquals(10000, studentPointsRecord.studentId());
+        assertEquals(1, studentPointsRecord.course1Points());
+        assertEquals(2, studentPointsRecord.course2Points());
+        assertEquals(3, studentPointsRecord.course3Points());
+        assertEquals(4, studentPointsRecord.course4Points());
     }
 
     @ParameterizedTest
     @MethodSource("rejectsIncorrectNumberOfElementsProvider")
-    void buildStudentRecord_RejectsIncorrectNumberOfElements(String[] elements) {
-        Optional<StudentPointsRecord> result = addPointsHandler.buildStudentPointsRecord(elements);
-        assertTrue(result.isEmpty());
+    void parseStudentPointsRecord_RejectsIncorrectNumberOfElements(String input) {
+        var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0);
+        assertFalse(addPointsHandler.parseStudentPointsRecord(input, false, studentPointsRecord, new int[5]));
     }
 
     static Stream<Arguments> rejectsIncorrectNumberOfElementsProvider() {
         return Stream.of(
-                Arguments.of((Object) new String[]{"10000", "1", "2", "3"}),
-                Arguments.of((Object) new String[]{"10000", "1", "2", "3", "4", "5"})
+                Arguments.of("10000 1 2 3"),
+                Arguments.of("10000 1 2 3 4 5")
         );
     }
 
     @Test
-    void buildStudentRecord_RejectsNonNumericPoints() {
-        var elements = new String[]{"10000", "1", "2", "3", "Four"};
-        Optional<StudentPointsRecord> result = addPointsHandler.buildStudentPointsRecord(elements);
-        assertTrue(result.isEmpty());
+    void parseStudentPointsRecord_RejectsNonNumericPoints() {
+        var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0);
+        assertFalse(addPointsHandler.parseStudentPointsRecord("10000 1 2 3 Four", false, studentPointsRecord, new int[5]));
     }
 
     @Test
-    void buildStudentRecord_RejectsNegativePoints() {
-        var elements = new String[]{"10000", "1", "2", "3", "-4"};
-        Optional<StudentPointsRecord> result = addPointsHandler.buildStudentPointsRecord(elements);
-        assertTrue(result.isEmpty());
+    void parseStudentPointsRecord_RejectsNegativePoints() {
+        var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0);
+        assertFalse(addPointsHandler.parseStudentPointsRecord("10000 1 2 3 -4", false, studentPointsRecord, new int[5]));
     }
 
     @Test
-    void buildStudentRecord_RejectsTooLargePoints() {
-        var elements = new String[]{"10000", "1", "2", "3", "4000"};
-        Optional<StudentPointsRecord> result = addPointsHandler.buildStudentPointsRecord(elements);
-        assertTrue(result.isEmpty());
+    void parseStudentPointsRecord_RejectsTooLargePoints() {
+        var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0);
+        assertFalse(addPointsHandler.parseStudentPointsRecord("10000 1 2 3 4000", false, studentPointsRecord, new int[5]));
+    }
+
+    @Test
+    void parseStudentPointsRecord_ParsesRecord() {
+        var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0);
+        assertTrue(addPointsHandler.parseStudentPointsRecord(" 10000  1\t2 +3 -0 ", false, studentPointsRecord, new int[5]));
+        assertEquals(new StudentPointsRecord(10000, 1, 2, 3, 0), studentPointsRecord);
+    }
+
+    @Test
+    void parseStudentPointsRecord_ParsesCommaSeparatedRecord() {
+        var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0);
+        assertTrue(addPointsHandler.parseStudentPointsRecord("10000,600, 400 ,480,550,", true, studentPointsRecord, new int[5]));
+        assertEquals(new StudentPointsRecord(10000, 600, 400, 480, 550), studentPointsRecord);
+    }
+
+    @Test
+    void parseStudentPointsRecord_ParsesOnSeveralThreadsAtOnce() {
+        IntStream.range(0, 100_000).parallel().forEach(i -> {
+            var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0);
+            int points = i % 400;
+            assertTrue(addPointsHandler.parseStudentPointsRecord((10000 + i) + " " + points + " " + points + " 0 0", false,
+                    studentPointsRecord, new int[5]));
+            assertEquals(new StudentPointsRecord(10000 + i, points, points, 0, 0), studentPointsRecord);
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "10000 1 2 3", "10000 1 2 3 4 5", "10000 1 2 3 Four", "10000 1 2 3 -4",
+            "10000 1 2 3 4000", "10000 1 2 3 +", "2147483648 1 2 3 4", "10000,1,2,3,4"})
+    void parseStudentPointsRecord_RejectsIncorrectInput(String input) {
+        var studentPointsRecord = new StudentPointsRecord(0, 0, 0, 0, 0);
+        assertFalse(addPointsHandler.parseStudentPointsRecord(input, false, studentPointsRecord, new int[5]));
+        assertEquals(new StudentPointsRecord(0, 0, 0, 0, 0), studentPointsRecord);
     }
 
     @Test
@@ -92,4 +137,23 @@ class AddPointsHandlerTest {
         List<String> result = addPointsHandler.validateStudentPointsRecord(studentPointsRecord);
         assertFalse(result.isEmpty());
     }
+
+    @Test
+    void addPoints_AppliesPointsWithCourseCompletionPoints() {
+        var studentPointsRecord = new StudentPointsRecord(10000, 600, 0, 0, 0);
+        when(studentData.applyPoints(same(studentPointsRecord), aryEq(new int[]{0, 600, 400, 480, 550}), same(studentPointsData)))
+                .thenReturn(1 << 1);
+        assertEquals(1 << 1, addPointsHandler.addPoints(studentPointsRecord));
+    }
+
+    @Test
+    void addPoints_SubmitsCompletedCoursesToRunningDispatcher() {
+        var studentPointsRecord = new StudentPointsRecord(10000, 600, 0, 480, 0);
+        when(studentData.applyPoints(same(studentPointsRecord), aryEq(new int[]{0, 600, 400, 480, 550}), same(studentPointsData)))
+                .thenReturn((1 << 1) | (1 << 3));
+        when(notificationDispatcher.isRunning()).thenReturn(true);
+        addPointsHandler.addPoints(studentPointsRecord);
+        verify(notificationDispatcher).submit(10000, 1);
+        verify(notificationDispatcher).submit(10000, 3);
+    }
 }
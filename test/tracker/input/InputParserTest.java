@@ -0,0 +1,76 @@
+package tracker.input;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputParserTest {
+    private static final InputParser inputParser = InputParser.getInstance();
+
+    @Test
+    void normalize_CollapsesWhitespace() {
+        assertEquals("10000 1 2 3 4", inputParser.normalize("  10000\t1  2 \r\n3   4  "));
+    }
+
+    @Test
+    void normalize_ReturnsNormalInputUnchanged() {
+        String input = "Bob Jones bob@test.com";
+        assertSame(input, inputParser.normalize(input));
+    }
+
+    @Test
+    void normalizeCommand_ReplacesWhitespaceWithUnderscore() {
+        assertEquals("add_students", inputParser.normalizeCommand(" add \t students "));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Bob", "AZ-c'az", "O'Neil", "Smith-Jones"})
+    void isNameValid_AcceptsValidNames(String name) {
+        assertTrue(inputParser.isNameValid(name));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "B", "Bob~", "'Bob", "Bob-", "Bo''b", "Bo-'b", "B\u00f8b"})
+    void isNameValid_RejectsInvalidNames(String name) {
+        assertFalse(inputParser.isNameValid(name));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bob@test.com", "@b@c.d", "a@b@c.d"})
+    void isEmailValid_AcceptsValidEmails(String email) {
+        assertTrue(inputParser.isEmailValid(email));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "@test.com", "bob@.com", "bob@test.", "bob@test", "bob@te\nst.com"})
+    void isEmailValid_RejectsInvalidEmails(String email) {
+        assertFalse(inputParser.isEmailValid(email));
+    }
+
+    @Test
+    void inputParser_MatchesRegularExpressions() {
+        final char[] characters = {'a', 'Z', '\'', '-', '@', '.', '_', '~', ' ', '\t', '\n', '\r', '\u000B', '\f', '\u0001', '\u0085'};
+        Random random = new Random(42);
+        for (int n = 0; n < 200_000; n++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(9);
+            for (int i = 0; i < length; i++) {
+                input.append(characters[random.nextInt(characters.length)]);
+            }
+            String s = input.toString();
+
+            String normalized = s.trim().replaceAll("\\s+", " ");
+            assertEquals(normalized, inputParser.normalize(s));
+            assertEquals(normalized.replaceAll(" ", "_"), inputParser.normalizeCommand(s));
+            assertEquals(s.matches("['\\-A-Za-z]{2,}")
+                            && !s.matches("^['\\-].+|.+['\\-]$")
+                            && !s.matches(".+['\\-]{2,}.+"),
+                    inputParser.isNameValid(s), s);
+            assertEquals(s.matches("^.+@.+\\..+$"), inputParser.isEmailValid(s), s);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package tracker.input;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tracker.data.StudentData;
+import tracker.data.StudentPointsData;
+import tracker.data.StudentPointsRecord;
+import tracker.data.StudentRecord;
+import tracker.output.ConsoleWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsHandlerTest {
+    private static final StatisticsHandler statisticsHandler = StatisticsHandler.getInstance();
+    private static final StudentPointsData studentPointsData = StudentPointsData.getInstance();
+    private static final ConsoleWriter console = ConsoleWriter.getInstance();
+
+    private final List<Integer> studentPointsIds = new ArrayList<>();
+    private PrintStream systemOut;
+    private ByteArrayOutputStream output;
+
+    @BeforeEach
+    void beforeEach() {
+        statisticsHandler.setStudentPointsData(studentPointsData);
+        // Many ties on points, so ranking falls back to student id.
+        Random random = new Random(42);
+        for (int i = 0; i < 400; i++) {
+            studentPointsIds.add(studentPointsData.addStudentPoints(
+                    new StudentPointsRecord(10000 + random.nextInt(200), random.nextInt(40) * 10, 0, 0, 0)));
+        }
+
+        console.flush();
+        systemOut = System.out;
+        output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void afterEach() {
+        console.flush();
+        System.setOut(systemOut);
+        studentPointsIds.forEach(studentPointsData::deleteStudentPoints);
+    }
+
+    @Test
+    void displayCourseStatistics_TopCountShowsFirstRowsOfFullTable() {
+        List<String> all = display(0);
+        List<String> top = display(20);
+
+        assertEquals(2 + 20, top.size());
+        assertEquals(all.subList(0, 2 + 20), top);
+    }
+
+    @Test
+    void displayCourseStatistics_TopCountAboveEnrollmentShowsFullTable() {
+        List<String> all = display(0);
+        assertEquals(all, display(1000));
+    }
+
+    @Test
+    void displayCourseStatistics_ShowsPointsAddedAfterEarlierView() {
+        List<String> before = display(0);
+        assertEquals(before, display(0));
+
+        studentPointsIds.add(studentPointsData.addStudentPoints(new StudentPointsRecord(10300, 600, 0, 0, 0)));
+        List<String> after = display(0);
+        assertEquals(before.size() + 1, after.size());
+        assertTrue(after.stream().anyMatch(line -> line.startsWith("10300   600 ")));
+    }
+
+    @Test
+    void displayCourseStatistics_ShowsStudentIdOnceForSeveralPointsRecords() {
+        studentPointsIds.add(studentPointsData.addStudentPoints(new StudentPointsRecord(10900, 0, 0, 0, 300)));
+        studentPointsIds.add(studentPointsData.addStudentPoints(new StudentPointsRecord(10900, 0, 0, 0, 100)));
+
+        assertEquals(List.of("Spring", "id      points completed", "10900   400    73.0%"),
+                display(StatisticsHandler.Command.spring, 0));
+    }
+
+    @Test
+    void displayCourseStatistics_TotalsMatchHistory() {
+        // Points history without students has no running totals, so start without it.
+        studentPointsIds.forEach(studentPointsData::deleteStudentPoints);
+        studentPointsIds.clear();
+
+        StudentData studentData = StudentData.getInstance();
+        int[] completionPoints = {0, 600, 400, 480, 550};
+        List<Integer> studentIds = new ArrayList<>();
+        Random random = new Random(11);
+        try {
+            for (int i = 0; i < 30; i++) {
+                studentIds.add(studentData.addStudent(new StudentRecord("Student", "Number", "totals" + i + "@test.com")));
+            }
+            for (int i = 0; i < 200; i++) {
+                // Enough points for some students to pass the course maximum.
+                var studentPointsRecord = new StudentPointsRecord(studentIds.get(random.nextInt(studentIds.size())),
+                        random.nextInt(100), random.nextInt(3) * 50, 0, 0);
+                studentData.applyPoints(studentPointsRecord, completionPoints, studentPointsData);
+                studentPointsIds.add(studentPointsRecord.studentPointsId());
+            }
+
+            for (var command : List.of(StatisticsHandler.Command.java, StatisticsHandler.Command.dsa)) {
+                List<String> history = display(command, 0);
+                statisticsHandler.setSource(StatisticsHandler.Source.TOTALS);
+                try {
+                    assertEquals(history, display(command, 0));
+                    assertEquals(history.subList(0, 2 + 5), display(command, 5));
+                } finally {
+                    statisticsHandler.setSource(StatisticsHandler.Source.HISTORY);
+                }
+            }
+        } finally {
+            studentIds.forEach(studentData::deleteStudent);
+        }
+    }
+
+    @Test
+    void displayCourseStatistics_TotalsDifferFromHistoryAfterDeletes() {
+        studentPointsIds.forEach(studentPointsData::deleteStudentPoints);
+        studentPointsIds.clear();
+
+        StudentData studentData = StudentData.getInstance();
+        int[] completionPoints = {0, 600, 400, 480, 550};
+        int bobId = studentData.addStudent(new StudentRecord("Bob", "Jones", "deletes.bob@test.com"));
+        int annId = studentData.addStudent(new StudentRecord("Ann", "Smith", "deletes.ann@test.com"));
+        try {
+            for (int studentId : new int[]{bobId, annId}) {
+                for (int points : new int[]{100, 20}) {
+                    var studentPointsRecord = new StudentPointsRecord(studentId, points, 0, 0, 0);
+                    studentData.applyPoints(studentPointsRecord, completionPoints, studentPointsData);
+                    studentPointsIds.add(studentPointsRecord.studentPointsId());
+                }
+            }
+            List<String> bothStudents = List.of("Java", "id      points completed",
+                    bobId + "   120    20.0%", annId + "   120    20.0%");
+            assertEquals(bothStudents, display(0));
+
+            // Deleted points records stay in the totals.
+            studentPointsData.deleteStudentPoints(studentPointsIds.get(1));
+            List<String> history = List.of("Java", "id      points completed",
+                    annId + "   120    20.0%", bobId + "   100    17.0%");
+            assertEquals(history, display(0));
+            statisticsHandler.setSource(StatisticsHandler.Source.TOTALS);
+            try {
+                assertEquals(bothStudents, display(0));
+            } finally {
+                statisticsHandler.setSource(StatisticsHandler.Source.HISTORY);
+            }
+
+            // Deleted students stay in the history.
+            studentData.deleteStudent(annId);
+            assertEquals(history, display(0));
+            statisticsHandler.setSource(StatisticsHandler.Source.TOTALS);
+            try {
+                assertEquals(List.of("Java", "id      points completed", bobId + "   120    20.0%"), display(0));
+            } finally {
+                statisticsHandler.setSource(StatisticsHandler.Source.HISTORY);
+            }
+        } finally {
+            studentData.deleteStudent(bobId);
+            studentData.deleteStudent(annId);
+        }
+    }
+
+    @Test
+    void enterCommand_ReadsTopCount() {
+        var scanner = new Scanner("Java  top 5\ndsa top 0\nback top 2\nspring\n");
+        int[] topCount = new int[1];
+
+        assertEquals(StatisticsHandler.Command.java, statisticsHandler.enterCommand(scanner, topCount));
+        assertEquals(5, topCount[0]);
+        assertEquals(StatisticsHandler.Command.spring, statisticsHandler.enterCommand(scanner, topCount));
+        assertEquals(0, topCount[0]);
+
+        console.flush();
+        assertEquals(String.format("Incorrect number of students.%nUnknown course.%n"), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void enterCommand_ReadsCoursesJoinedByAnd() {
+        var scanner = new Scanner("java and dsa top 5\njava and back\njava and\nSpring AND java\n");
+        int[] topCount = new int[1];
+        EnumSet<StatisticsHandler.Command> courses = EnumSet.noneOf(StatisticsHandler.Command.class);
+
+        assertEquals(StatisticsHandler.Command.java, statisticsHandler.enterCommand(scanner, topCount, courses));
+        assertEquals(EnumSet.of(StatisticsHandler.Command.java, StatisticsHandler.Command.spring), courses);
+
+        console.flush();
+        assertEquals(String.format("Unknown course.%nUnknown course.%nUnknown course.%n"), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void displayEnrolledStudents_ShowsStudentsInEveryCourse() {
+        studentPointsIds.add(studentPointsData.addStudentPoints(new StudentPointsRecord(10003, 10, 20, 0, 0)));
+        studentPointsIds.add(studentPointsData.addStudentPoints(new StudentPointsRecord(10001, 10, 20, 0, 0)));
+        studentPointsIds.add(studentPointsData.addStudentPoints(new StudentPointsRecord(10500, 0, 20, 0, 0)));
+
+        statisticsHandler.displayEnrolledStudents(EnumSet.of(StatisticsHandler.Command.java, StatisticsHandler.Command.dsa));
+
+        console.flush();
+        assertEquals(List.of("Java and DSA", "Students enrolled: 2", "10001", "10003"),
+                output.toString(StandardCharsets.UTF_8).lines().toList());
+    }
+
+    @Test
+    void completionPercent_MatchesBigDecimalRoundingForEveryCoursePoint() {
+        StringBuilder expected = new StringBuilder();
+        for (int coursePoints : new int[]{600, 400, 480, 550}) {
+            for (int points = 0; points <= coursePoints; points++) {
+                BigDecimal completed = BigDecimal.valueOf(100L * points).divide(BigDecimal.valueOf(coursePoints), RoundingMode.HALF_UP);
+                assertEquals(completed.intValueExact(), StatisticsHandler.completionPercent(points, coursePoints));
+                expected.append(String.format("%.1f%%%n", completed));
+                console.printPercent(StatisticsHandler.completionPercent(points, coursePoints) * 10L).println();
+            }
+        }
+        console.flush();
+        assertEquals(expected.toString(), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void completionPercent_MatchesBigDecimalRoundingForRandomTotals() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            int coursePoints = 1 + random.nextInt(1_000_000);
+            int points = random.nextInt(coursePoints + 1);
+            BigDecimal completed = BigDecimal.valueOf(100L * points).divide(BigDecimal.valueOf(coursePoints), RoundingMode.HALF_UP);
+            assertEquals(completed.intValueExact(), StatisticsHandler.completionPercent(points, coursePoints),
+                    points + " of " + coursePoints);
+        }
+    }
+
+    private List<String> display(int topCount) {
+        return display(StatisticsHandler.Command.java, topCount);
+    }
+
+    private List<String> display(StatisticsHandler.Command command, int topCount) {
+        console.flush();
+        output.reset();
+        statisticsHandler.displayCourseStatistics(command, topCount);
+        console.flush();
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
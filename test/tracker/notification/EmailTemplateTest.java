@@ -0,0 +1,78 @@
+package tracker.notification;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tracker.data.StudentData;
+import tracker.data.StudentRecord;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateTest {
+    private static final StudentRecord studentRecord = new StudentRecord(10000, "Bob", "Jones", "bob@test.com");
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void afterEach() throws IOException {
+        // Reload from an empty directory to go back to the default templates.
+        Notify.getInstance().loadEmailTemplates(Files.createTempDirectory(directory, "empty"));
+        Notify.getInstance().setNotificationSender(new ConsoleNotificationSender());
+    }
+
+    @Test
+    void render_MatchesChainedReplace() {
+        String template = """
+                To: %EMAIL_ADDRESS%
+                Re: Your Learning Progress
+                Hello, %FULL_USER_NAME%! You have accomplished our %COURSE_NAME% course!""";
+        String expected = template
+                .replace("%EMAIL_ADDRESS%", studentRecord.email())
+                .replace("%FULL_USER_NAME%", studentRecord.firstName() + " " + studentRecord.lastName())
+                .replace("%COURSE_NAME%", "Java");
+        assertEquals(expected, EmailTemplate.parse(template).render(studentRecord, "Java"));
+    }
+
+    @Test
+    void render_KeepsTextThatIsNotAPlaceholder() {
+        EmailTemplate template = EmailTemplate.parse("%FIRST_NAME%: 100% of %UNKNOWN% %LAST_NAME%%");
+        assertEquals("Bob: 100% of %UNKNOWN% Jones%", template.render(studentRecord, "Java"));
+    }
+
+    @Test
+    void render_AppendsToBuffer() {
+        StringBuilder email = new StringBuilder("> ");
+        EmailTemplate.parse("%COURSE_NAME%").render(studentRecord, "DSA", email);
+        assertEquals("> DSA", email.toString());
+    }
+
+    @Test
+    void loadEmailTemplates_UsesCourseTemplateFiles() throws IOException {
+        Files.writeString(directory.resolve("spring.txt"), "Well done %FIRST_NAME%, %COURSE_NAME% is complete.\n");
+        Notify notify = Notify.getInstance();
+        notify.loadEmailTemplates(directory);
+        var sender = new InMemoryNotificationSender();
+        notify.setNotificationSender(sender);
+
+        StudentData studentData = StudentData.getInstance();
+        int studentId = studentData.addStudent(new StudentRecord("Ann", "Smith", "ann.templates@test.com"));
+        try {
+            studentData.setCourseNotificationStatus(studentId, 4, 1);
+            studentData.setCourseNotificationStatus(studentId, 1, 1);
+            notify.sendNotification(studentId, 4);
+            notify.sendNotification(studentId, 1);
+        } finally {
+            studentData.deleteStudent(studentId);
+        }
+
+        List<String> emails = sender.getEmails();
+        assertEquals("Well done Ann, Spring is complete.", emails.get(0));
+        assertTrue(emails.get(1).startsWith("To: ann.templates@test.com"));
+    }
+}
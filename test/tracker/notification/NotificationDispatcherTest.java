@@ -0,0 +1,167 @@
+package tracker.notification;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tracker.data.StudentData;
+import tracker.data.StudentRecord;
+import tracker.output.ConsoleWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationDispatcherTest {
+    private static final NotificationDispatcher notificationDispatcher = NotificationDispatcher.getInstance();
+    private static final Notify notify = Notify.getInstance();
+    private static final StudentData studentData = StudentData.getInstance();
+
+    private InMemoryNotificationSender sender;
+
+    @BeforeEach
+    void beforeEach() {
+        for (StudentRecord studentRecord : studentData.getStudents()) {
+            studentData.deleteStudent(studentRecord.studentId());
+        }
+        sender = new InMemoryNotificationSender();
+        notify.setNotificationSender(sender);
+    }
+
+    @AfterEach
+    void afterEach() {
+        notificationDispatcher.stop();
+        notify.setNotificationSender(new ConsoleNotificationSender());
+    }
+
+    @Test
+    void submit_SendsQueuedCompletions() {
+        int bobId = addCompletedStudent("Bob", 1);
+        int annId = addCompletedStudent("Ann", 3);
+
+        notificationDispatcher.start(2, 10);
+        assertTrue(notificationDispatcher.submit(bobId, 1));
+        assertTrue(notificationDispatcher.submit(annId, 3));
+        notificationDispatcher.stop();
+
+        List<String> emails = sender.getEmails();
+        assertEquals(2, emails.size());
+        assertTrue(emails.contains("""
+                To: bob@test.com
+                Re: Your Learning Progress
+                Hello, Bob Jones! You have accomplished our Java course!"""));
+        assertEquals(Integer.valueOf(2), studentData.getCourseNotificationStatus(bobId, 1).orElseThrow());
+        assertEquals(Integer.valueOf(2), studentData.getCourseNotificationStatus(annId, 3).orElseThrow());
+    }
+
+    @Test
+    void submit_SendsEachCompletionOnce() {
+        int bobId = addCompletedStudent("Bob", 2);
+
+        notificationDispatcher.start(4, 100);
+        for (int i = 0; i < 50; i++) {
+            notificationDispatcher.submit(bobId, 2);
+        }
+        notificationDispatcher.stop();
+        notify.sendNotifications();
+
+        assertEquals(1, sender.getEmails().size());
+    }
+
+    @Test
+    void submit_LeavesCompletionForNotifyWhenNotRunning() {
+        int bobId = addCompletedStudent("Bob", 4);
+
+        assertFalse(notificationDispatcher.submit(bobId, 4));
+        assertEquals(Integer.valueOf(1), studentData.getCourseNotificationStatus(bobId, 4).orElseThrow());
+
+        notify.sendNotifications();
+        assertEquals(1, sender.getEmails().size());
+        assertEquals(Integer.valueOf(2), studentData.getCourseNotificationStatus(bobId, 4).orElseThrow());
+    }
+
+    @Test
+    void sendNotifications_SendsOnlyPendingCourses() {
+        int bobId = addCompletedStudent("Bob", 2);
+        int annId = addCompletedStudent("Ann", 1);
+        studentData.setCourseNotificationStatus(bobId, 4, 2);
+        studentData.setCourseNotificationStatus(annId, 1, 0);
+
+        notify.sendNotifications();
+
+        assertEquals(1, sender.getEmails().size());
+        assertTrue(sender.getEmails().get(0).endsWith("our DSA course!"));
+        assertEquals(0, studentData.getNumberOfPendingNotifications());
+    }
+
+    @Test
+    void sendNotification_FlagsCourseAgainWhenSendFails() {
+        int bobId = addCompletedStudent("Bob", 1);
+        notify.setNotificationSender(email -> {
+            throw new IOException("Mail server down");
+        });
+
+        assertFalse(notify.sendNotification(bobId, 1));
+        assertEquals(Integer.valueOf(1), studentData.getCourseNotificationStatus(bobId, 1).orElseThrow());
+    }
+
+    @Test
+    void consoleSender_NeverInterleavesOutputLines() {
+        ConsoleWriter console = ConsoleWriter.getInstance();
+        notify.setNotificationSender(new ConsoleNotificationSender());
+        List<Integer> studentIds = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            studentIds.add(addCompletedStudent("Student" + (char) ('a' + i % 26) + (char) ('a' + i / 26), 1));
+        }
+
+        console.flush();
+        PrintStream systemOut = System.out;
+        var output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            notificationDispatcher.start(8, 1000);
+            for (int studentId : studentIds) {
+                notificationDispatcher.submit(studentId, 1);
+            }
+            // Rows built from several calls, with a prompt every few rows, while emails are sent.
+            for (int row = 0; row < 2000; row++) {
+                console.print("row", 5).print(" ").print(row, 6).print(" ").println(row);
+                if (row % 50 == 0) {
+                    console.flush();
+                }
+            }
+            notificationDispatcher.stop();
+            console.flush();
+        } finally {
+            System.setOut(systemOut);
+        }
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        int rows = 0;
+        int emails = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.startsWith("row")) {
+                assertEquals(String.format("%-5s %-6d %d", "row", rows, rows), line);
+                rows++;
+            } else {
+                assertTrue(line.startsWith("To: student"), line);
+                assertEquals("Re: Your Learning Progress", lines.get(++i));
+                assertTrue(lines.get(++i).matches("Hello, Student\\w+ Jones! You have accomplished our Java course!"));
+                emails++;
+            }
+        }
+        assertEquals(2000, rows);
+        assertEquals(200, emails);
+    }
+
+    private static int addCompletedStudent(String firstName, int courseId) {
+        int studentId = studentData.addStudent(new StudentRecord(firstName, "Jones", firstName.toLowerCase() + "@test.com"));
+        studentData.setCourseNotificationStatus(studentId, courseId, 1);
+        return studentId;
+    }
+}
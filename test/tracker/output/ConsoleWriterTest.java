@@ -0,0 +1,109 @@
+package tracker.output;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsoleWriterTest {
+    private static final ConsoleWriter console = ConsoleWriter.getInstance();
+
+    private PrintStream systemOut;
+    private ByteArrayOutputStream output;
+
+    @BeforeEach
+    void beforeEach() {
+        console.flush();
+        systemOut = System.out;
+        output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void afterEach() {
+        console.flush();
+        System.setOut(systemOut);
+    }
+
+    @Test
+    void print_MatchesPrintf() {
+        console.print("id", 7).print(" ").print("points", 6).print(" ").println("completed");
+        console.print(10000, 7).print(" ").print(480, 6).print(" ").printPercent(1000).println();
+        console.print(-5, 3).print("|").print(1234567, 3).print("|").printPercent(7).println();
+        console.flush();
+
+        String expected = String.format("%-7s %-6s %s%n", "id", "points", "completed")
+                + String.format("%-7d %-6d %.1f%%%n", 10000, 480, 100.0)
+                + String.format("%-3d|%-3d|%.1f%%%n", -5, 1234567, 0.7);
+        assertEquals(expected, output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void flush_WritesBufferedOutputInOrder() {
+        console.println("first").printf("%d %s%n", 2, "second");
+        assertEquals(0, output.size());
+
+        console.flush();
+        assertEquals(String.format("first%n2 second%n"), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void println_FlushesWhenBufferIsFull() {
+        for (int i = 0; i < 100_000; i++) {
+            console.println(i);
+        }
+        assertTrue(output.size() > 0);
+
+        console.flush();
+        assertTrue(output.toString(StandardCharsets.UTF_8).endsWith(String.format("99998%n99999%n")));
+    }
+
+    @Test
+    void printLater_HoldsOutputUntilFlush() {
+        console.print("id ");
+        console.printLater(String.format("email%n"));
+        console.println(10000);
+        assertEquals(0, output.size());
+
+        console.flush();
+        assertEquals(String.format("id 10000%nemail%n"), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void printLater_HoldsOutputWhenBufferFills() {
+        console.printLater(String.format("email%n"));
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            console.println(i);
+            expected.append(i).append(System.lineSeparator());
+        }
+        assertTrue(output.size() > 0);
+        assertFalse(output.toString(StandardCharsets.UTF_8).contains("email"));
+
+        console.flush();
+        assertEquals(expected.append(String.format("email%n")).toString(), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void textWriter_KeepsOutputAsText() {
+        ConsoleWriter text = ConsoleWriter.textWriter();
+        for (int i = 0; i < 100_000; i++) {
+            text.println(i);
+        }
+        text.flush();
+        assertEquals(0, output.size());
+
+        String rendered = text.text();
+        assertTrue(rendered.startsWith(String.format("0%n1%n")));
+        assertTrue(rendered.endsWith(String.format("99998%n99999%n")));
+        assertEquals("", text.text());
+
+        console.print(rendered).flush();
+        assertEquals(rendered, output.toString(StandardCharsets.UTF_8));
+    }
+}